@@ -0,0 +1,70 @@
+package com.ognjen.template.systemtest.benchmark;
+
+import com.ognjen.template.systemtest.harness.IntervalLog;
+import com.ognjen.template.systemtest.harness.OperationMetrics;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MetricsRecordingBenchmark {
+
+  /** Whether an {@link IntervalLog} is attached, as it is during every load run. */
+  @Param({"false", "true"})
+  public boolean intervalLog;
+
+  private final OperationMetrics metrics = new OperationMetrics();
+  private IntervalLog log;
+
+  @Setup(Level.Trial)
+  public void attachIntervalLog() {
+    if (intervalLog) {
+      System.setProperty("perf.live", "false");
+      log = IntervalLog.start(metrics, "metrics-recording-benchmark");
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void closeIntervalLog() {
+    if (log != null) {
+      log.close();
+      log = null;
+    }
+  }
+
+  @Benchmark
+  public void recordSuccess() {
+    long start = System.nanoTime();
+    metrics.recordSuccess("create-envelope", System.nanoTime() - start + 250_000);
+  }
+
+  @Benchmark
+  @Threads(8)
+  public void recordSuccessContended() {
+    long start = System.nanoTime();
+    metrics.recordSuccess("create-envelope", System.nanoTime() - start + 250_000);
+  }
+
+  @Benchmark
+  @Threads(8)
+  public void recordError() {
+    metrics.recordError("create-envelope");
+  }
+}
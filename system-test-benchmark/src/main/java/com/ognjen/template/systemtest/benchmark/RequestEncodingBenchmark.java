@@ -0,0 +1,59 @@
+package com.ognjen.template.systemtest.benchmark;
+
+import com.ognjen.template.systemtest.harness.BudgetOkClient;
+import java.net.http.HttpRequest;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RequestEncodingBenchmark {
+
+  // Not final, so the JIT cannot fold the payloads being measured into constants.
+  private String name = "Groceries";
+  private int budget = 1000;
+  private int amount = 150;
+  private String memo = "Groceries";
+  private String transactionType = "WITHDRAW";
+  private long sourceEnvelopeId = 42;
+  private long targetEnvelopeId = 43;
+  private BudgetOkClient api;
+
+  @Setup
+  public void setUp() {
+    api = new BudgetOkClient();
+  }
+
+  @Benchmark
+  public String envelopePayload() {
+    return BudgetOkClient.envelopePayload(name, budget);
+  }
+
+  @Benchmark
+  public String expensePayload() {
+    return BudgetOkClient.expensePayload(amount, memo, transactionType);
+  }
+
+  @Benchmark
+  public String transferPayload() {
+    return BudgetOkClient.transferPayload(sourceEnvelopeId, targetEnvelopeId, amount, memo);
+  }
+
+  @Benchmark
+  public HttpRequest createEnvelopeRequest() throws Exception {
+    return api.createEnvelopeRequest(name, budget);
+  }
+}
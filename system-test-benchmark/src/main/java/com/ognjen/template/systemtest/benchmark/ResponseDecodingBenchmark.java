@@ -0,0 +1,65 @@
+package com.ognjen.template.systemtest.benchmark;
+
+import com.ognjen.template.systemtest.harness.BudgetOkClient;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ResponseDecodingBenchmark {
+
+  // Number of expenses in the envelope body; the id scan stops early, while the price scan and
+  // the containment checks used by the tests have to walk past every expense.
+  @Param({"0", "10", "500"})
+  private int expenses;
+
+  private String envelopeBody;
+  private String priceBody;
+
+  @Setup
+  public void setUp() {
+    StringBuilder body = new StringBuilder("{\"id\":12345,\"name\":\"Groceries\",\"budget\":1000,"
+        + "\"balance\":850,\"expenses\":[");
+    for (int i = 0; i < expenses; i++) {
+      if (i > 0) {
+        body.append(',');
+      }
+      body.append("{\"id\":").append(100_000 + i)
+          .append(",\"amount\":").append(i % 500)
+          .append(",\"memo\":\"Expense ").append(i)
+          .append("\",\"transactionType\":\"WITHDRAW\",\"bankExpenseId\":null}");
+    }
+    envelopeBody = body.append("]}").toString();
+    priceBody = envelopeBody.substring(0, envelopeBody.length() - 1)
+        + ",\"price\":100,\"taxRate\":0.2,\"finalPrice\":120.0}";
+  }
+
+  @Benchmark
+  public long extractId() {
+    return BudgetOkClient.extractId(envelopeBody);
+  }
+
+  @Benchmark
+  public int extractPrice() {
+    return BudgetOkClient.extractPrice(priceBody, "finalPrice");
+  }
+
+  @Benchmark
+  public boolean containsExpense() {
+    return envelopeBody.contains("\"memo\":\"Expense " + (expenses - 1) + "\"");
+  }
+}
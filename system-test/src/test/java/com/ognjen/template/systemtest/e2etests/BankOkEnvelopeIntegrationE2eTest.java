@@ -1,5 +1,8 @@
 package com.ognjen.template.systemtest.e2etests;
 
+import com.ognjen.template.systemtest.harness.BudgetOkClient;
+import com.ognjen.template.systemtest.harness.DatabaseFixture;
+import com.ognjen.template.systemtest.harness.Fixtures;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
@@ -10,6 +13,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+@DatabaseFixture(Fixtures.FUNCTIONAL)
 class BankOkEnvelopeIntegrationE2eTest {
 
   private final HttpClient client = HttpClient.newHttpClient();
@@ -46,7 +50,7 @@ class BankOkEnvelopeIntegrationE2eTest {
     String electronicsEnvelopeBody = getElectronicsEnvelopeResponse.body();
 
     // Extract electronics envelope ID
-    long electronicsEnvelopeId = extractIdFromResponse(electronicsEnvelopeBody);
+    long electronicsEnvelopeId = BudgetOkClient.extractId(electronicsEnvelopeBody);
     assertTrue(electronicsEnvelopeId > 0,
         "Should extract valid electronics envelope ID");
 
@@ -67,7 +71,7 @@ class BankOkEnvelopeIntegrationE2eTest {
     assertEquals(201, createBankOkExpenseResponse.statusCode(),
         "Should create expense in Bank OK");
     String bankOkExpenseResponseBody = createBankOkExpenseResponse.body();
-    long bankOkExpenseId = extractIdFromResponse(bankOkExpenseResponseBody);
+    long bankOkExpenseId = BudgetOkClient.extractId(bankOkExpenseResponseBody);
     assertTrue(bankOkExpenseId > 0,
         "Should extract valid Bank OK expense ID");
 
@@ -114,19 +118,6 @@ class BankOkEnvelopeIntegrationE2eTest {
         "Samsung 25 expense should be marked as WITHDRAW");
   }
 
-  private long extractIdFromResponse(String responseBody) {
-    int idIndex = responseBody.indexOf("\"id\":");
-    if (idIndex == -1) {
-      return -1;
-    }
-    int idEndIndex = responseBody.indexOf(",", idIndex);
-    if (idEndIndex == -1) {
-      idEndIndex = responseBody.indexOf("}", idIndex);
-    }
-    String idStr = responseBody.substring(idIndex + 5, idEndIndex).trim();
-    return Long.parseLong(idStr);
-  }
-
   private int extractExpensePrice(String cartBody, String expenseTitle) {
     // Find the expense by title
     int titleIndex = cartBody.indexOf("\"title\":\"" + expenseTitle + "\"");
@@ -1,5 +1,8 @@
 package com.ognjen.template.systemtest.e2etests;
 
+import com.ognjen.template.systemtest.harness.BudgetOkClient;
+import com.ognjen.template.systemtest.harness.DatabaseFixture;
+import com.ognjen.template.systemtest.harness.Fixtures;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
@@ -13,9 +16,11 @@ import org.junit.jupiter.params.provider.MethodSource;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+@DatabaseFixture(Fixtures.FUNCTIONAL)
 class EnvelopeCrudE2eTest {
 
   private final HttpClient client = HttpClient.newHttpClient();
+  private final BudgetOkClient api = new BudgetOkClient(client);
   private final String baseUrl = "http://localhost:8080/api/envelopes";
 
   @Test
@@ -41,9 +46,6 @@ class EnvelopeCrudE2eTest {
   @Test
   void givenMultipleEnvelopesExist_whenGetAllEnvelopes_thenReturnAllEnvelopes() throws Exception {
 
-    createEnvelope("Groceries", 1000);
-    createEnvelope("Entertainment", 500);
-    createEnvelope("Utilities", 300);
     HttpRequest request = HttpRequest.newBuilder()
         .uri(new URI(baseUrl))
         .GET()
@@ -62,7 +64,7 @@ class EnvelopeCrudE2eTest {
   @Test
   void givenExistingEnvelope_whenGetEnvelopeById_thenReturnEnvelope() throws Exception {
 
-    long envelopeId = createEnvelope("Shopping", 750);
+    long envelopeId = api.findEnvelopeId("Shopping");
     HttpRequest request = HttpRequest.newBuilder()
         .uri(new URI(baseUrl + "/" + envelopeId))
         .GET()
@@ -81,7 +83,7 @@ class EnvelopeCrudE2eTest {
   @Test
   void givenExistingEnvelope_whenUpdateEnvelope_thenEnvelopeIsUpdated() throws Exception {
 
-    long envelopeId = createEnvelope("Old Name", 1000);
+    long envelopeId = api.findEnvelopeId("Old Name");
     String payload = "{\"name\":\"Updated Name\",\"budget\":2000}";
     HttpRequest request = HttpRequest.newBuilder()
         .uri(new URI(baseUrl + "/" + envelopeId))
@@ -100,7 +102,7 @@ class EnvelopeCrudE2eTest {
   @Test
   void givenExistingEnvelope_whenDeleteEnvelope_thenEnvelopeIsDeleted() throws Exception {
 
-    long envelopeId = createEnvelope("To Delete", 500);
+    long envelopeId = api.findEnvelopeId("To Delete");
     HttpRequest deleteRequest = HttpRequest.newBuilder()
         .uri(new URI(baseUrl + "/" + envelopeId))
         .DELETE()
@@ -186,30 +188,4 @@ class EnvelopeCrudE2eTest {
 
     assertEquals(400, response.statusCode(), "Should return 400 Bad Request for non-integer budget type");
   }
-
-  private long createEnvelope(String name, int budget) throws Exception {
-    String payload = "{\"name\":\"" + name + "\",\"budget\":" + budget + "}";
-    HttpRequest request = HttpRequest.newBuilder()
-        .uri(new URI(baseUrl))
-        .header("Content-Type", "application/json")
-        .POST(HttpRequest.BodyPublishers.ofString(payload))
-        .build();
-
-    HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-    assertEquals(201, response.statusCode(), "Should create envelope successfully");
-
-    return extractIdFrom(response);
-  }
-
-  private long extractIdFrom(HttpResponse<String> response) {
-
-    String responseBody = response.body();
-    int idIndex = responseBody.indexOf("\"id\":");
-    int idEndIndex = responseBody.indexOf(",", idIndex);
-    if (idEndIndex == -1) {
-      idEndIndex = responseBody.indexOf("}", idIndex);
-    }
-    String idStr = responseBody.substring(idIndex + 5, idEndIndex).trim();
-    return Long.parseLong(idStr);
-  }
 }
@@ -1,5 +1,8 @@
 package com.ognjen.template.systemtest.e2etests;
 
+import com.ognjen.template.systemtest.harness.BudgetOkClient;
+import com.ognjen.template.systemtest.harness.DatabaseFixture;
+import com.ognjen.template.systemtest.harness.Fixtures;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
@@ -10,16 +13,18 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+@DatabaseFixture(Fixtures.FUNCTIONAL)
 class EnvelopeTransferE2eTest {
 
   private final HttpClient client = HttpClient.newHttpClient();
+  private final BudgetOkClient api = new BudgetOkClient(client);
   private final String baseUrl = "http://localhost:8080/api/envelopes";
 
   @Test
   void givenSufficientBalance_whenTransferringAmount_thenTransferSucceeds() throws Exception {
 
-    long sourceEnvelopeId = createEnvelope("Groceries", 1000);
-    long targetEnvelopeId = createEnvelope("Entertainment", 500);
+    long sourceEnvelopeId = api.findEnvelopeId("Transfer From");
+    long targetEnvelopeId = api.findEnvelopeId("Transfer To");
     int transferAmount = 200;
 
     String transferPayload = "{\"sourceEnvelopeId\":" + sourceEnvelopeId
@@ -65,8 +70,8 @@ class EnvelopeTransferE2eTest {
   @Test
   void givenInsufficientBalance_whenTransferringAmount_thenTransferFails() throws Exception {
 
-    long sourceEnvelopeId = createEnvelope("Limited Budget", 50);
-    long targetEnvelopeId = createEnvelope("Target", 500);
+    long sourceEnvelopeId = api.findEnvelopeId("Limited Budget");
+    long targetEnvelopeId = api.findEnvelopeId("Target");
     int transferAmount = 200;
 
     String transferPayload = "{\"sourceEnvelopeId\":" + sourceEnvelopeId
@@ -105,7 +110,7 @@ class EnvelopeTransferE2eTest {
   @Test
   void givenNonExistentTargetEnvelope_whenTransferringAmount_thenTransferFails() throws Exception {
 
-    long sourceEnvelopeId = createEnvelope("Source", 1000);
+    long sourceEnvelopeId = api.findEnvelopeId("Source");
     long nonExistentTargetId = 99999;
 
     String transferPayload =
@@ -130,28 +135,6 @@ class EnvelopeTransferE2eTest {
         "Source envelope should not have any expenses");
   }
 
-  private long createEnvelope(String name, int budget) throws Exception {
-    String payload = "{\"name\":\"" + name + "\",\"budget\":" + budget + "}";
-    HttpRequest request = HttpRequest.newBuilder()
-        .uri(new URI(baseUrl))
-        .header("Content-Type", "application/json")
-        .POST(HttpRequest.BodyPublishers.ofString(payload))
-        .build();
-
-    HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-    assertEquals(201, response.statusCode(), "Should create envelope successfully");
-
-    // Extract ID from response
-    String responseBody = response.body();
-    int idIndex = responseBody.indexOf("\"id\":");
-    int idEndIndex = responseBody.indexOf(",", idIndex);
-    if (idEndIndex == -1) {
-      idEndIndex = responseBody.indexOf("}", idIndex);
-    }
-    String idStr = responseBody.substring(idIndex + 5, idEndIndex).trim();
-    return Long.parseLong(idStr);
-  }
-
   private HttpResponse<String> getEnvelope(long id) throws Exception {
     HttpRequest request = HttpRequest.newBuilder()
         .uri(new URI(baseUrl + "/" + id))
@@ -1,5 +1,8 @@
 package com.ognjen.template.systemtest.e2etests;
 
+import com.ognjen.template.systemtest.harness.BudgetOkClient;
+import com.ognjen.template.systemtest.harness.DatabaseFixture;
+import com.ognjen.template.systemtest.harness.Fixtures;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
@@ -9,16 +12,18 @@ import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+@DatabaseFixture(Fixtures.FUNCTIONAL)
 class ExpenseCrudE2eTest {
 
   private final HttpClient client = HttpClient.newHttpClient();
+  private final BudgetOkClient api = new BudgetOkClient(client);
   private final String baseUrl = "http://localhost:8080/api/envelopes";
 
   @Test
   void givenExistingEnvelope_whenCreateWithdrawExpense_thenExpenseIsAdded()
       throws Exception {
 
-    long envelopeId = createEnvelope("Shopping", 1000);
+    long envelopeId = api.findEnvelopeId("Household");
     String payload = "{\"amount\":150,\"memo\":\"Groceries\",\"transactionType\":\"WITHDRAW\"}";
     HttpRequest request = HttpRequest.newBuilder()
         .uri(new URI(baseUrl + "/" + envelopeId + "/expenses"))
@@ -40,7 +45,7 @@ class ExpenseCrudE2eTest {
   void givenExistingEnvelope_whenCreateDepositExpense_thenExpenseIsAdded()
       throws Exception {
 
-    long envelopeId = createEnvelope("Refunds", 500);
+    long envelopeId = api.findEnvelopeId("Refunds");
     String payload = "{\"amount\":50,\"memo\":\"Refund for return\",\"transactionType\":\"DEPOSIT\"}";
     HttpRequest request = HttpRequest.newBuilder()
         .uri(new URI(baseUrl + "/" + envelopeId + "/expenses"))
@@ -62,7 +67,7 @@ class ExpenseCrudE2eTest {
   @Test
   void givenExistingEnvelope_whenCreateMultipleExpenses_thenAllExpensesAreAdded() throws Exception {
 
-    long envelopeId = createEnvelope("Mixed Transactions", 2000);
+    long envelopeId = api.findEnvelopeId("Mixed Transactions");
 
     String withdrawExpense1Payload = "{\"amount\":100,\"memo\":\"Purchase 1\",\"transactionType\":\"WITHDRAW\"}";
     HttpRequest request1 = HttpRequest.newBuilder()
@@ -97,10 +102,7 @@ class ExpenseCrudE2eTest {
   @Test
   void givenEnvelopeWithExpenses_whenGetEnvelope_thenAllExpensesAreReturned() throws Exception {
 
-    long envelopeId = createEnvelope("Vacation Fund", 3000);
-    addExpense(envelopeId, 500, "Flight", "WITHDRAW");
-    addExpense(envelopeId, 200, "Hotel", "WITHDRAW");
-    addExpense(envelopeId, 100, "Meals", "WITHDRAW");
+    long envelopeId = api.findEnvelopeId("Vacation Fund");
 
     HttpRequest request = HttpRequest.newBuilder()
         .uri(new URI(baseUrl + "/" + envelopeId))
@@ -118,47 +120,4 @@ class ExpenseCrudE2eTest {
     assertTrue(body.contains("\"amount\":200"), "Response should contain hotel amount");
     assertTrue(body.contains("\"amount\":100"), "Response should contain meals amount");
   }
-
-  private long createEnvelope(String name, int budget) throws Exception {
-    String payload = "{\"name\":\"" + name + "\",\"budget\":" + budget + "}";
-    HttpRequest request = HttpRequest.newBuilder()
-        .uri(new URI(baseUrl))
-        .header("Content-Type", "application/json")
-        .POST(HttpRequest.BodyPublishers.ofString(payload))
-        .build();
-
-    HttpResponse<String> response = client.send(request,
-        HttpResponse.BodyHandlers.ofString());
-    assertEquals(201, response.statusCode(), "Should create envelope successfully");
-
-    return extractIdFrom(response);
-  }
-
-  private void addExpense(long envelopeId, int amount, String memo, String transactionType)
-      throws Exception {
-    String payload =
-        "{\"amount\":" + amount + ",\"memo\":\"" + memo + "\",\"transactionType\":\"" +
-            transactionType + "\"}";
-    HttpRequest request = HttpRequest.newBuilder()
-        .uri(new URI(baseUrl + "/" + envelopeId + "/expenses"))
-        .header("Content-Type", "application/json")
-        .POST(HttpRequest.BodyPublishers.ofString(payload))
-        .build();
-
-    HttpResponse<String> response = client.send(request,
-        HttpResponse.BodyHandlers.ofString());
-    assertEquals(201, response.statusCode(), "Should add expense successfully");
-  }
-
-  private long extractIdFrom(HttpResponse<String> response) {
-
-    String responseBody = response.body();
-    int idIndex = responseBody.indexOf("\"id\":");
-    int idEndIndex = responseBody.indexOf(",", idIndex);
-    if (idEndIndex == -1) {
-      idEndIndex = responseBody.indexOf("}", idIndex);
-    }
-    String idStr = responseBody.substring(idIndex + 5, idEndIndex).trim();
-    return Long.parseLong(idStr);
-  }
 }
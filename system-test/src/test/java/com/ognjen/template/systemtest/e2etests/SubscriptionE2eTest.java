@@ -1,5 +1,8 @@
 package com.ognjen.template.systemtest.e2etests;
 
+import com.ognjen.template.systemtest.harness.BudgetOkClient;
+import com.ognjen.template.systemtest.harness.DatabaseFixture;
+import com.ognjen.template.systemtest.harness.Fixtures;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
@@ -9,6 +12,7 @@ import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+@DatabaseFixture(Fixtures.FUNCTIONAL)
 class SubscriptionE2eTest {
 
   private final HttpClient client = HttpClient.newHttpClient();
@@ -39,7 +43,7 @@ class SubscriptionE2eTest {
         "Response should contain finalPrice field");
 
     // Extract the finalPrice from response
-    int finalPrice = extractPriceFromResponse(priceResponseBody, "finalPrice");
+    int finalPrice = BudgetOkClient.extractPrice(priceResponseBody, "finalPrice");
     assertTrue(finalPrice > 0,
         "finalPrice should be a valid positive price");
 
@@ -80,7 +84,7 @@ class SubscriptionE2eTest {
         "Response should contain finalPrice field");
 
     // Extract the finalPrice from response
-    int finalPrice = extractPriceFromResponse(subscriptionResponseBody, "finalPrice");
+    int finalPrice = BudgetOkClient.extractPrice(subscriptionResponseBody, "finalPrice");
     assertTrue(finalPrice > 0,
         "finalPrice should be a valid positive price");
 
@@ -93,29 +97,4 @@ class SubscriptionE2eTest {
             + originalPrice
             + ") due to Bank OK discount");
   }
-
-  private int extractPriceFromResponse(String responseBody, String priceFieldName) {
-    // Find the price field by name (e.g., "finalPrice", "price", etc.)
-    String searchPattern = "\"" + priceFieldName + "\":";
-    int priceIndex = responseBody.indexOf(searchPattern);
-    if (priceIndex == -1) {
-      return -1;
-    }
-
-    // Extract the price value
-    int priceStart = priceIndex + searchPattern.length();
-    int priceEnd = priceStart;
-
-    // Find the end of the number
-    while (priceEnd < responseBody.length()) {
-      char c = responseBody.charAt(priceEnd);
-      if (!Character.isDigit(c) && c != '.') {
-        break;
-      }
-      priceEnd++;
-    }
-
-    String priceStr = responseBody.substring(priceStart, priceEnd).trim();
-    return Double.valueOf(priceStr).intValue();
-  }
 }
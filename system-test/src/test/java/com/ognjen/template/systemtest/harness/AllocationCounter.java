@@ -0,0 +1,48 @@
+package com.ognjen.template.systemtest.harness;
+
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads how many bytes the backend JVM has allocated so far from the Spring Boot actuator's
+ * {@code jvm.gc.memory.allocated} counter, so that a run can report real allocation per
+ * operation rather than the change in container memory, which a pre-sized heap hides.
+ *
+ * <p>Micrometer adds to the counter at every young collection, so a delta only covers what was
+ * allocated up to the last collection inside the window. Runs long enough to trigger several
+ * collections keep that error small.
+ */
+public class AllocationCounter {
+
+  public static final String METRIC_PATH = System.getProperty("perf.allocation.metricPath",
+      "/actuator/metrics/jvm.gc.memory.allocated");
+
+  private static final Pattern VALUE = Pattern.compile("\"value\"\\s*:\\s*([-+0-9.Ee]+)");
+
+  private final BudgetOkClient api;
+
+  public AllocationCounter(BudgetOkClient api) {
+    this.api = api;
+  }
+
+  /** Bytes allocated by the backend since it started, or -1 when it does not expose the metric. */
+  public long allocatedBytes() throws Exception {
+    HttpResponse<byte[]> response = api.getRaw(METRIC_PATH, Map.of());
+    if (response.statusCode() != 200) {
+      return -1;
+    }
+    return parse(new String(response.body(), StandardCharsets.UTF_8));
+  }
+
+  /** The first measurement of an actuator metric response, such as {@code 1.2345E9}. */
+  static long parse(String body) {
+    Matcher value = VALUE.matcher(body);
+    if (!value.find()) {
+      throw new IllegalArgumentException("No measurement in actuator response: " + body);
+    }
+    return (long) Double.parseDouble(value.group(1));
+  }
+}
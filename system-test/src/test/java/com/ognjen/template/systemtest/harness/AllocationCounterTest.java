@@ -0,0 +1,25 @@
+package com.ognjen.template.systemtest.harness;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AllocationCounterTest {
+
+  @Test
+  void givenActuatorMetricResponse_whenParsing_thenReadFirstMeasurement() {
+    String body = """
+        {"name":"jvm.gc.memory.allocated","baseUnit":"bytes",\
+        "measurements":[{"statistic":"COUNT","value":1.2345678E9}],"availableTags":[]}
+        """;
+
+    assertEquals(1_234_567_800L, AllocationCounter.parse(body));
+  }
+
+  @Test
+  void givenResponseWithoutMeasurement_whenParsing_thenFail() {
+    assertThrows(IllegalArgumentException.class,
+        () -> AllocationCounter.parse("{\"status\":404}"));
+  }
+}
@@ -0,0 +1,20 @@
+package com.ognjen.template.systemtest.harness;
+
+/**
+ * How the harness registers and logs in its users. The backend does not require authentication
+ * yet, so everything runs anonymously unless {@code perf.auth.enabled=true}; the paths and the
+ * token field can be pointed at whatever the auth endpoints end up being.
+ */
+public record AuthSettings(boolean enabled, String registerPath, String loginPath,
+                           String tokenField, String password, int users) {
+
+  public static AuthSettings fromSystemProperties() {
+    return new AuthSettings(
+        Boolean.getBoolean("perf.auth.enabled"),
+        System.getProperty("perf.auth.registerPath", "/api/auth/register"),
+        System.getProperty("perf.auth.loginPath", "/api/auth/login"),
+        System.getProperty("perf.auth.tokenField", "token"),
+        System.getProperty("perf.auth.password", "Perf-Passw0rd!"),
+        Integer.getInteger("perf.auth.users", 1_000));
+  }
+}
@@ -0,0 +1,55 @@
+package com.ognjen.template.systemtest.harness;
+
+import java.util.function.Supplier;
+
+/**
+ * Runs another scenario with logged-in users. {@link #prepare} takes the shared
+ * {@link SessionPool} and gives every session its own instance of the wrapped scenario, prepared
+ * with that session's token, so each user only touches data it owns. Iteration {@code n} runs as
+ * session {@code n % size}, as that session's {@code n / size}-th iteration.
+ */
+public class AuthenticatedScenario implements Scenario {
+
+  private static final int PREPARING_USERS = 16;
+
+  private final Supplier<Scenario> delegates;
+  private final String name;
+  private final AuthSettings settings;
+  private volatile SessionPool sessions;
+  private volatile Scenario[] perSession;
+
+  public AuthenticatedScenario(Supplier<Scenario> delegates, AuthSettings settings) {
+    this.delegates = delegates;
+    this.name = delegates.get().name();
+    this.settings = settings;
+  }
+
+  @Override
+  public String name() {
+    return name;
+  }
+
+  @Override
+  public void prepare(BudgetOkClient api) throws Exception {
+    SessionPool pool = SessionPool.shared(settings);
+    Scenario[] scenarios = new Scenario[pool.size()];
+    new LoadRunner(new OperationMetrics(), name + "-prepare").run(PREPARING_USERS, pool.size(),
+        session -> {
+          scenarios[session] = delegates.get();
+          scenarios[session].prepare(pool.client(session));
+        });
+    sessions = pool;
+    perSession = scenarios;
+  }
+
+  @Override
+  public void iteration(BudgetOkClient api, LoadRunner runner, int iteration) throws Exception {
+    int session = sessions.index(iteration);
+    perSession[session].iteration(sessions.client(session), runner,
+        Math.floorDiv(iteration, sessions.size()));
+  }
+
+  public SessionPool sessions() {
+    return sessions;
+  }
+}
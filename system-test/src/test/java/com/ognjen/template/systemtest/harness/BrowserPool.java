@@ -0,0 +1,183 @@
+package com.ognjen.template.systemtest.harness;
+
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.BrowserType;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.Playwright;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Keeps launched Chromium instances warm so UI tests and browser-level load do not pay for a new
+ * Playwright driver and browser every time. A {@link Lease} gives one thread exclusive use of a
+ * browser with a fresh {@link BrowserContext}, so cookies and storage never leak between leases;
+ * closing the lease closes the context and returns the browser to the pool.
+ *
+ * <p>Playwright objects must not be used by two threads at once, so the number of concurrent
+ * sessions is the number of browsers: at most {@code maxBrowsers} leases are handed out and
+ * {@link #acquire} blocks until one is returned.
+ */
+public class BrowserPool implements AutoCloseable {
+
+  public static final String FRONTEND_URL = System.getProperty("frontend.url",
+      "http://localhost:5173");
+
+  private static volatile BrowserPool shared;
+
+  private final int maxBrowsers;
+  private final boolean headless;
+  private final Semaphore permits;
+  private final BlockingQueue<PooledBrowser> idle = new LinkedBlockingQueue<>();
+  private final List<PooledBrowser> launched = new CopyOnWriteArrayList<>();
+
+  public BrowserPool(int maxBrowsers, boolean headless) {
+    this.maxBrowsers = maxBrowsers;
+    this.headless = headless;
+    this.permits = new Semaphore(maxBrowsers);
+  }
+
+  /**
+   * The pool shared by all tests in this JVM, sized by {@code ui.browsers} (default 2) and
+   * headless unless {@code -Dui.headless=false}. It is closed when the JVM exits.
+   */
+  public static BrowserPool shared() {
+    if (shared == null) {
+      synchronized (BrowserPool.class) {
+        if (shared == null) {
+          BrowserPool pool = new BrowserPool(Integer.getInteger("ui.browsers", 2),
+              !"false".equals(System.getProperty("ui.headless")));
+          Runtime.getRuntime().addShutdownHook(new Thread(pool::close));
+          shared = pool;
+        }
+      }
+    }
+    return shared;
+  }
+
+  public int maxBrowsers() {
+    return maxBrowsers;
+  }
+
+  /** Launches browsers up front so the first leases do not include start-up time. */
+  public void warmUp(int browsers) throws InterruptedException {
+    List<Lease> leases = new ArrayList<>();
+    try {
+      for (int i = 0; i < Math.min(browsers, maxBrowsers); i++) {
+        leases.add(acquire());
+      }
+    } finally {
+      leases.forEach(Lease::close);
+    }
+  }
+
+  public Lease acquire() throws InterruptedException {
+    permits.acquire();
+    try {
+      PooledBrowser pooled = idle.poll();
+      if (pooled != null && !pooled.browser.isConnected()) {
+        discard(pooled);
+        pooled = null;
+      }
+      if (pooled == null) {
+        pooled = launch();
+      }
+      BrowserContext context;
+      try {
+        context = pooled.browser.newContext();
+      } catch (RuntimeException e) {
+        discard(pooled);
+        throw e;
+      }
+      return new Lease(pooled, context);
+    } catch (RuntimeException e) {
+      permits.release();
+      throw e;
+    }
+  }
+
+  @Override
+  public void close() {
+    for (PooledBrowser pooled : launched) {
+      discard(pooled);
+    }
+    idle.clear();
+  }
+
+  private PooledBrowser launch() {
+    Playwright playwright = Playwright.create();
+    try {
+      Browser browser = playwright.chromium()
+          .launch(new BrowserType.LaunchOptions().setHeadless(headless));
+      PooledBrowser pooled = new PooledBrowser(playwright, browser);
+      launched.add(pooled);
+      return pooled;
+    } catch (RuntimeException e) {
+      playwright.close();
+      throw e;
+    }
+  }
+
+  private void discard(PooledBrowser pooled) {
+    launched.remove(pooled);
+    try {
+      pooled.playwright.close();
+    } catch (RuntimeException e) {
+      // The driver is already gone; nothing left to release.
+    }
+  }
+
+  private void release(PooledBrowser pooled) {
+    idle.add(pooled);
+    permits.release();
+  }
+
+  private record PooledBrowser(Playwright playwright, Browser browser) {
+  }
+
+  /** Exclusive use of one pooled browser through a fresh context. */
+  public final class Lease implements AutoCloseable {
+
+    private final PooledBrowser pooled;
+    private final BrowserContext context;
+    private Page page;
+    private boolean closed;
+
+    private Lease(PooledBrowser pooled, BrowserContext context) {
+      this.pooled = pooled;
+      this.context = context;
+    }
+
+    public BrowserContext context() {
+      return context;
+    }
+
+    /** The lease's page, opened on first use. */
+    public Page page() {
+      if (page == null) {
+        page = context.newPage();
+      }
+      return page;
+    }
+
+    @Override
+    public void close() {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      try {
+        context.close();
+      } catch (RuntimeException e) {
+        discard(pooled);
+        permits.release();
+        return;
+      }
+      release(pooled);
+    }
+  }
+}
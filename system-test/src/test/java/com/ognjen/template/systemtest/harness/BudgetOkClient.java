@@ -0,0 +1,327 @@
+package com.ognjen.template.systemtest.harness;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Thin HTTP client for the Budget OK backend and the Bank OK external API, shared by the
+ * performance scenarios. Payloads and response parsing follow the same plain-string approach as
+ * the E2E tests.
+ */
+public class BudgetOkClient {
+
+  public static final String BACKEND_URL = System.getProperty("backend.url",
+      "http://localhost:8080");
+  public static final String BANK_OK_URL = System.getProperty("bankok.url",
+      "http://localhost:8081");
+
+  /**
+   * How long any request may take before it fails with {@code HttpTimeoutException}, which load
+   * runs record as an error. Keeps an overloaded backend from stalling a run indefinitely.
+   */
+  public static final Duration REQUEST_TIMEOUT =
+      Duration.ofSeconds(Long.getLong("perf.requestTimeoutSeconds", 30));
+
+  /** Logs in again and returns a fresh token. */
+  @FunctionalInterface
+  public interface Login {
+
+    String token() throws Exception;
+  }
+
+  private final HttpClient client;
+  private final String envelopesUrl;
+  private final AtomicReference<String> authorization;
+  private final Login relogin;
+
+  public BudgetOkClient() {
+    this(HttpClient.newBuilder()
+        .connectTimeout(REQUEST_TIMEOUT)
+        .build());
+  }
+
+  public BudgetOkClient(HttpClient client) {
+    this(client, null, null);
+  }
+
+  private BudgetOkClient(HttpClient client, String authorization, Login relogin) {
+    this.client = client;
+    this.envelopesUrl = BACKEND_URL + "/api/envelopes";
+    this.authorization = new AtomicReference<>(authorization);
+    this.relogin = relogin;
+  }
+
+  /**
+   * A client for the same connection pool that sends {@code Authorization: Bearer <token>} on
+   * every backend request.
+   */
+  public BudgetOkClient withToken(String token) {
+    return withToken(token, null);
+  }
+
+  /**
+   * Like {@link #withToken(String)}, but when the backend answers 401 (the token expired or was
+   * revoked) it logs in again through {@code relogin} and repeats the request once.
+   */
+  public BudgetOkClient withToken(String token, Login relogin) {
+    return new BudgetOkClient(client, "Bearer " + token, relogin);
+  }
+
+  public HttpResponse<String> register(String path, String username, String password)
+      throws Exception {
+    return post(BACKEND_URL + path, credentialsPayload(username, password));
+  }
+
+  public HttpResponse<String> login(String path, String username, String password)
+      throws Exception {
+    return post(BACKEND_URL + path, credentialsPayload(username, password));
+  }
+
+  /**
+   * Polls the envelope list until the backend answers with 200, for use after the stack or its
+   * database has been restarted.
+   */
+  public void awaitReady(Duration timeout) throws InterruptedException {
+    long deadline = System.nanoTime() + timeout.toNanos();
+    while (true) {
+      try {
+        if (getEnvelopes().statusCode() == 200) {
+          return;
+        }
+      } catch (Exception e) {
+        if (e instanceof InterruptedException) {
+          throw (InterruptedException) e;
+        }
+      }
+      if (System.nanoTime() > deadline) {
+        throw new IllegalStateException("Backend was not ready within " + timeout);
+      }
+      Thread.sleep(100);
+    }
+  }
+
+  public HttpResponse<String> createEnvelope(String name, int budget) throws Exception {
+    return send(createEnvelopeRequest(name, budget), HttpResponse.BodyHandlers.ofString());
+  }
+
+  /** The request {@link #createEnvelope} sends, built but not sent. */
+  public HttpRequest createEnvelopeRequest(String name, int budget) throws Exception {
+    return postRequest(envelopesUrl, envelopePayload(name, budget));
+  }
+
+  public long createEnvelopeId(String name, int budget) throws Exception {
+    HttpResponse<String> response = createEnvelope(name, budget);
+    expectStatus(201, response, "create envelope");
+    return extractId(response.body());
+  }
+
+  /** The id of the envelope with this name, such as one seeded by a fixture. */
+  public long findEnvelopeId(String name) throws Exception {
+    HttpResponse<String> response = get(envelopesUrl + "?name="
+        + URLEncoder.encode(name, StandardCharsets.UTF_8));
+    expectStatus(200, response, "find envelope " + name);
+    long id = extractId(response.body());
+    if (id == -1) {
+      throw new IllegalStateException("No envelope named " + name
+          + "; was the fixture restored?");
+    }
+    return id;
+  }
+
+  public HttpResponse<String> getEnvelopes() throws Exception {
+    return get(envelopesUrl);
+  }
+
+  public HttpResponse<String> getEnvelope(long id) throws Exception {
+    return get(envelopesUrl + "/" + id);
+  }
+
+  public HttpResponse<byte[]> getRaw(String path, Map<String, String> headers) throws Exception {
+    HttpRequest.Builder builder = newRequest(BACKEND_URL + path)
+        .GET();
+    headers.forEach(builder::header);
+
+    return send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+  }
+
+  public HttpResponse<String> updateEnvelope(long id, String name, int budget) throws Exception {
+    return updateEnvelope(id, name, budget, Map.of());
+  }
+
+  public HttpResponse<String> updateEnvelope(long id, String name, int budget,
+      Map<String, String> headers) throws Exception {
+    HttpRequest.Builder builder = newRequest(envelopesUrl + "/" + id)
+        .header("Content-Type", "application/json")
+        .method("PUT", HttpRequest.BodyPublishers.ofString(envelopePayload(name, budget)));
+    headers.forEach(builder::header);
+
+    return send(builder.build(), HttpResponse.BodyHandlers.ofString());
+  }
+
+  public HttpResponse<String> addExpense(long envelopeId, int amount, String memo,
+      String transactionType) throws Exception {
+    return post(envelopesUrl + "/" + envelopeId + "/expenses",
+        expensePayload(amount, memo, transactionType));
+  }
+
+  public HttpResponse<String> transfer(long sourceEnvelopeId, long targetEnvelopeId, int amount,
+      String memo) throws Exception {
+    return post(envelopesUrl + "/transfer",
+        transferPayload(sourceEnvelopeId, targetEnvelopeId, amount, memo));
+  }
+
+  public HttpResponse<String> syncBankOk() throws Exception {
+    HttpRequest request = newRequest(BACKEND_URL + "/api/bankok/sync-bank-ok")
+        .POST(HttpRequest.BodyPublishers.noBody())
+        .build();
+
+    return send(request, HttpResponse.BodyHandlers.ofString());
+  }
+
+  public HttpResponse<String> createBankOkExpense(String title, int price, String envelopeName,
+      String transactionType) throws Exception {
+    return post(BANK_OK_URL + "/api/expenses/create-expense",
+        bankOkExpensePayload(title, price, envelopeName, transactionType));
+  }
+
+  public static String credentialsPayload(String username, String password) {
+    return "{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}";
+  }
+
+  public static String envelopePayload(String name, int budget) {
+    return "{\"name\":\"" + name + "\",\"budget\":" + budget + "}";
+  }
+
+  public static String expensePayload(int amount, String memo, String transactionType) {
+    return "{\"amount\":" + amount + ",\"memo\":\"" + memo + "\",\"transactionType\":\""
+        + transactionType + "\"}";
+  }
+
+  public static String transferPayload(long sourceEnvelopeId, long targetEnvelopeId, int amount,
+      String memo) {
+    return "{\"sourceEnvelopeId\":" + sourceEnvelopeId
+        + ",\"targetEnvelopeId\":" + targetEnvelopeId
+        + ",\"amount\":" + amount
+        + ",\"memo\":\"" + memo + "\"}";
+  }
+
+  public static String bankOkExpensePayload(String title, int price, String envelopeName,
+      String transactionType) {
+    return "{\"title\":\"" + title + "\",\"price\":" + price + ",\"envelopeName\":\""
+        + envelopeName + "\",\"transactionType\":\"" + transactionType + "\"}";
+  }
+
+  public static long extractId(String responseBody) {
+    int idIndex = responseBody.indexOf("\"id\":");
+    if (idIndex == -1) {
+      return -1;
+    }
+    int idEndIndex = responseBody.indexOf(",", idIndex);
+    if (idEndIndex == -1) {
+      idEndIndex = responseBody.indexOf("}", idIndex);
+    }
+    String idStr = responseBody.substring(idIndex + 5, idEndIndex).trim();
+    return Long.parseLong(idStr);
+  }
+
+  public static String extractString(String responseBody, String fieldName) {
+    String searchPattern = "\"" + fieldName + "\":\"";
+    int valueIndex = responseBody.indexOf(searchPattern);
+    if (valueIndex == -1) {
+      return null;
+    }
+    int valueStart = valueIndex + searchPattern.length();
+    return responseBody.substring(valueStart, responseBody.indexOf('"', valueStart));
+  }
+
+  public static int extractPrice(String responseBody, String priceFieldName) {
+    return extractNumber(responseBody, priceFieldName);
+  }
+
+  public static int extractNumber(String responseBody, String fieldName) {
+    String searchPattern = "\"" + fieldName + "\":";
+    int valueIndex = responseBody.indexOf(searchPattern);
+    if (valueIndex == -1) {
+      return -1;
+    }
+
+    int valueStart = valueIndex + searchPattern.length();
+    int valueEnd = valueStart;
+    while (valueEnd < responseBody.length()) {
+      char c = responseBody.charAt(valueEnd);
+      if (!Character.isDigit(c) && c != '.') {
+        break;
+      }
+      valueEnd++;
+    }
+
+    String valueStr = responseBody.substring(valueStart, valueEnd).trim();
+    return Double.valueOf(valueStr).intValue();
+  }
+
+  private HttpResponse<String> get(String url) throws Exception {
+    HttpRequest request = newRequest(url)
+        .GET()
+        .build();
+
+    return send(request, HttpResponse.BodyHandlers.ofString());
+  }
+
+  private HttpResponse<String> post(String url, String payload) throws Exception {
+    return send(postRequest(url, payload), HttpResponse.BodyHandlers.ofString());
+  }
+
+  private HttpRequest postRequest(String url, String payload) throws Exception {
+    return newRequest(url)
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofString(payload))
+        .build();
+  }
+
+  private <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> handler)
+      throws Exception {
+    HttpResponse<T> response = client.send(request, handler);
+    String sent = request.headers().firstValue("Authorization").orElse(null);
+    if (response.statusCode() != 401 || relogin == null || sent == null) {
+      return response;
+    }
+    HttpRequest retry = HttpRequest.newBuilder(request,
+            (header, value) -> !header.equalsIgnoreCase("Authorization"))
+        .header("Authorization", refreshAuthorization(sent))
+        .build();
+    return client.send(retry, handler);
+  }
+
+  // Concurrent requests that were all rejected with the same token log in only once.
+  private synchronized String refreshAuthorization(String rejected) throws Exception {
+    if (rejected.equals(authorization.get())) {
+      authorization.set("Bearer " + relogin.token());
+    }
+    return authorization.get();
+  }
+
+  private HttpRequest.Builder newRequest(String url) throws Exception {
+    HttpRequest.Builder builder = HttpRequest.newBuilder()
+        .uri(new URI(url))
+        .timeout(REQUEST_TIMEOUT);
+    String header = authorization.get();
+    if (header != null && url.startsWith(BACKEND_URL)) {
+      builder.header("Authorization", header);
+    }
+    return builder;
+  }
+
+  private static void expectStatus(int expected, HttpResponse<String> response, String action) {
+    if (response.statusCode() != expected) {
+      throw new IllegalStateException("Failed to " + action + ": expected " + expected + " but got "
+          + response.statusCode() + " - " + response.body());
+    }
+  }
+}
@@ -0,0 +1,130 @@
+package com.ognjen.template.systemtest.harness;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Finds the highest arrival rate a scenario sustains within an SLO. Each probe runs the scenario
+ * at a fixed rate and fails when p99 latency, the error rate, or the achieved-to-offered
+ * throughput ratio crosses its limit. In {@link Mode#STEP} the rate grows by a fixed increment
+ * until a probe fails; in {@link Mode#BINARY} it doubles until a probe fails and then bisects.
+ * A probe whose requests have not drained well after its schedule ended is over capacity.
+ *
+ * <p>When every probe up to {@code maxRate} passes, the knee was not found and the result is only
+ * a lower bound on capacity ({@link Result#lowerBound()}).
+ */
+public class CapacitySearch {
+
+  public enum Mode {
+    STEP,
+    BINARY
+  }
+
+  public record Slo(long p99Micros, double maxErrorRate, double minThroughputRatio) {
+  }
+
+  public record Settings(Mode mode, double startRate, double stepRate, double maxRate,
+                         double tolerance) {
+  }
+
+  public record CurvePoint(double offeredRate, double achievedRate, long p50Micros,
+                           long p99Micros, double errorRate, boolean withinSlo) {
+  }
+
+  public record Result(double kneeRate, boolean lowerBound, List<CurvePoint> curve) {
+  }
+
+  @FunctionalInterface
+  public interface Probe {
+
+    CurvePoint measure(double rate) throws Exception;
+  }
+
+  private final Settings settings;
+
+  public CapacitySearch(Settings settings) {
+    this.settings = settings;
+  }
+
+  public Result search(Probe probe) throws Exception {
+    List<CurvePoint> curve = new ArrayList<>();
+    double passing = 0;
+    double failing = Double.NaN;
+
+    double rate = settings.startRate();
+    while (rate <= settings.maxRate()) {
+      CurvePoint point = probe.measure(rate);
+      curve.add(point);
+      if (!point.withinSlo()) {
+        failing = rate;
+        break;
+      }
+      passing = rate;
+      rate = settings.mode() == Mode.STEP ? rate + settings.stepRate() : rate * 2;
+    }
+
+    if (settings.mode() == Mode.BINARY && !Double.isNaN(failing) && passing > 0) {
+      while ((failing - passing) / passing > settings.tolerance()) {
+        double middle = (passing + failing) / 2;
+        CurvePoint point = probe.measure(middle);
+        curve.add(point);
+        if (point.withinSlo()) {
+          passing = middle;
+        } else {
+          failing = middle;
+        }
+      }
+    }
+
+    curve.sort(Comparator.comparingDouble(CurvePoint::offeredRate));
+    return new Result(passing, Double.isNaN(failing) && passing > 0, curve);
+  }
+
+  /**
+   * A probe that runs a scenario through a {@link LoadRunner} at each rate and judges the outcome
+   * against the SLO. Every probe takes a fresh scenario from {@code scenarios} and prepares it
+   * before the clock starts, so writes of earlier probes do not make later ones slower; restore
+   * the fixture there too when the scenario reads collections that grow.
+   */
+  public static Probe scenarioProbe(Callable<Scenario> scenarios, BudgetOkClient api,
+      Duration stepDuration, int maxConcurrency, Slo slo) {
+    return rate -> {
+      Scenario scenario = scenarios.call();
+      scenario.prepare(api);
+      OperationMetrics metrics = new OperationMetrics();
+      LoadRunner runner = new LoadRunner(metrics,
+          String.format(Locale.ROOT, "capacity %s %.0frps", scenario.name(), rate));
+      long start = System.nanoTime();
+      boolean drained = runner.runAtRate(rate, stepDuration, maxConcurrency,
+          iteration -> scenario.iteration(api, runner, iteration));
+      double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+      CurvePoint point = judge(rate, metrics, seconds, slo);
+      return drained ? point : new CurvePoint(point.offeredRate(), point.achievedRate(),
+          point.p50Micros(), point.p99Micros(), point.errorRate(), false);
+    };
+  }
+
+  static CurvePoint judge(double offeredRate, OperationMetrics metrics, double seconds, Slo slo) {
+    Histogram all = new Histogram(3);
+    long errors = 0;
+    for (String operation : metrics.operations()) {
+      all.add(metrics.latency(operation));
+      errors += metrics.errorCount(operation);
+    }
+    long total = all.getTotalCount() + errors;
+    double errorRate = total > 0 ? (double) errors / total : 1;
+    double achievedRate = all.getTotalCount() / seconds;
+    long p99 = all.getValueAtPercentile(99);
+
+    boolean withinSlo = p99 <= slo.p99Micros()
+        && errorRate <= slo.maxErrorRate()
+        && achievedRate >= offeredRate * slo.minThroughputRatio();
+    return new CurvePoint(offeredRate, achievedRate, all.getValueAtPercentile(50), p99, errorRate,
+        withinSlo);
+  }
+}
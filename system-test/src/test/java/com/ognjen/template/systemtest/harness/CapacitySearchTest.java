@@ -0,0 +1,60 @@
+package com.ognjen.template.systemtest.harness;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CapacitySearchTest {
+
+  private static final double KNEE = 370;
+
+  // p99 stays flat until the knee and then climbs steeply, like a saturated backend.
+  private final CapacitySearch.Probe backend = rate -> {
+    long p99 = rate <= KNEE ? 20_000 : 20_000 + (long) ((rate - KNEE) * 10_000);
+    return new CapacitySearch.CurvePoint(rate, rate, 5_000, p99, 0, p99 <= 50_000);
+  };
+
+  @Test
+  void givenStepMode_whenSearching_thenKneeIsLastPassingStep() throws Exception {
+    CapacitySearch search = new CapacitySearch(
+        new CapacitySearch.Settings(CapacitySearch.Mode.STEP, 50, 50, 1_000, 0.05));
+
+    CapacitySearch.Result result = search.search(backend);
+
+    assertEquals(350, result.kneeRate());
+    assertEquals(8, result.curve().size());
+    assertFalse(result.lowerBound());
+  }
+
+  @Test
+  void givenBinaryMode_whenSearching_thenKneeIsWithinTolerance() throws Exception {
+    CapacitySearch search = new CapacitySearch(
+        new CapacitySearch.Settings(CapacitySearch.Mode.BINARY, 25, 0, 10_000, 0.02));
+
+    CapacitySearch.Result result = search.search(backend);
+
+    assertTrue(result.kneeRate() <= KNEE + 3, "Knee should not exceed the real limit");
+    assertTrue(result.kneeRate() >= KNEE * 0.98, "Knee should be within 2% of the real limit");
+  }
+
+  @Test
+  void givenFirstProbeFails_whenSearching_thenKneeIsZero() throws Exception {
+    CapacitySearch search = new CapacitySearch(
+        new CapacitySearch.Settings(CapacitySearch.Mode.BINARY, 500, 0, 10_000, 0.05));
+
+    assertEquals(0, search.search(backend).kneeRate());
+  }
+
+  @Test
+  void givenNoProbeFailsUpToMaxRate_whenSearching_thenKneeIsOnlyALowerBound() throws Exception {
+    CapacitySearch search = new CapacitySearch(
+        new CapacitySearch.Settings(CapacitySearch.Mode.STEP, 50, 50, 200, 0.05));
+
+    CapacitySearch.Result result = search.search(backend);
+
+    assertEquals(200, result.kneeRate());
+    assertTrue(result.lowerBound(), "Knee at maxRate should be reported as a lower bound");
+  }
+}
@@ -0,0 +1,116 @@
+package com.ognjen.template.systemtest.harness;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs the same load profile against the stack once per {@link StackConfig}. For every
+ * combination the {@code db} and {@code backend} containers are recreated with a generated
+ * compose override, the fixture is restored so each run starts from the same data, the scenario
+ * is warmed up, the containers' idle CPU is sampled, and the scenario is then measured along
+ * with the containers' CPU and peak memory. CPU per operation is reported net of that config's
+ * idle burn, since heap size and GC choice change it. The stack is put back on its defaults
+ * afterwards.
+ */
+public class ConfigSweep {
+
+  private static final List<String> RESTARTED_SERVICES = List.of("db", "backend");
+  private static final List<String> SAMPLED_SERVICES = List.of("db", "backend");
+  private static final long IDLE_WINDOW_MILLIS = Long.getLong("perf.idleWindowMillis", 5_000);
+
+  public record Settings(String scenario, Fixture fixture, int virtualUsers, Duration warmup,
+                         Duration duration, Duration startupTimeout) {
+  }
+
+  public record Outcome(StackConfig config, OperationMetrics metrics, Duration elapsed,
+                        Map<String, ResourceUsage> usage, Map<String, Double> idleCpu) {
+
+    public long operations() {
+      return metrics.operations().stream().mapToLong(metrics::successCount).sum();
+    }
+
+    public long errors() {
+      return metrics.operations().stream().mapToLong(metrics::errorCount).sum();
+    }
+
+    public double throughput() {
+      return operations() / (elapsed.toNanos() / 1_000_000_000.0);
+    }
+
+    /** CPU milliseconds per operation in the service, minus what it burns while idle. */
+    public double cpuMillisPerOperation(String service) {
+      return usage.get(service).cpuMillisPerOperation(operations(),
+          idleCpu.getOrDefault(service, 0.0));
+    }
+  }
+
+  private final DockerCompose docker;
+  private final BudgetOkClient api;
+  private final Settings settings;
+
+  public ConfigSweep(DockerCompose docker, BudgetOkClient api, Settings settings) {
+    this.docker = docker;
+    this.api = api;
+    this.settings = settings;
+  }
+
+  public List<Outcome> run(List<StackConfig> configs) throws Exception {
+    Path overrides = PerfReport.RESULTS_DIR.resolve("sweep");
+    Files.createDirectories(overrides);
+
+    List<Outcome> outcomes = new ArrayList<>();
+    try {
+      for (int i = 0; i < configs.size(); i++) {
+        StackConfig config = configs.get(i);
+        Path override = overrides.resolve("config-" + i + ".override.yml");
+        Files.writeString(override, config.overrideYaml());
+        outcomes.add(measure(config, docker.withOverride(override)));
+      }
+    } finally {
+      restart(docker);
+    }
+    return outcomes;
+  }
+
+  private Outcome measure(StackConfig config, DockerCompose stack) throws Exception {
+    restart(stack);
+    new PostgresFixtures(stack, api, System.getProperty("fixtures.database", "budgetok"),
+        System.getProperty("fixtures.user", "postgres"), false).restore(settings.fixture());
+
+    Scenario scenario = Scenarios.named(settings.scenario());
+    scenario.prepare(api);
+    LoadRunner warmup = new LoadRunner(new OperationMetrics(), "sweep-warmup");
+    warmup.runFor(settings.virtualUsers(), settings.warmup(),
+        iteration -> scenario.iteration(api, warmup, iteration));
+
+    ContainerResourceSampler sampler = new ContainerResourceSampler(stack, SAMPLED_SERVICES,
+        Long.getLong("perf.sampler.intervalMillis", 1_000));
+    Map<String, Double> idleCpu = sampler.measureIdle(IDLE_WINDOW_MILLIS);
+
+    OperationMetrics metrics = new OperationMetrics();
+    LoadRunner runner = new LoadRunner(metrics, "sweep " + config.name());
+    Map<String, ResourceUsage> usage;
+    sampler.start();
+    long start = System.nanoTime();
+    try {
+      runner.runFor(settings.virtualUsers(), settings.duration(),
+          iteration -> scenario.iteration(api, runner, iteration));
+    } finally {
+      usage = sampler.stop();
+    }
+    Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+    return new Outcome(config, metrics, elapsed, usage, idleCpu);
+  }
+
+  private void restart(DockerCompose stack) throws InterruptedException {
+    List<String> args = new ArrayList<>(List.of("up", "-d", "--force-recreate", "--wait"));
+    args.addAll(RESTARTED_SERVICES);
+    stack.compose(args.toArray(String[]::new));
+    stack.forgetContainers();
+    api.awaitReady(settings.startupTimeout());
+  }
+}
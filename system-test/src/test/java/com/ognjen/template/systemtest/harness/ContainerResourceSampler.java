@@ -0,0 +1,117 @@
+package com.ognjen.template.systemtest.harness;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Samples cgroup CPU and memory counters of the docker compose services while a scenario runs.
+ *
+ * <p>CPU is read at the start and end of the window, so the delta is exact; memory is additionally
+ * polled in the background to catch the peak. Each read is a {@code docker exec cat}, whose own
+ * CPU (well under a millisecond) lands in the sampled container's cgroup.
+ */
+public class ContainerResourceSampler {
+
+  public static final List<String> DEFAULT_SERVICES = List.of("db", "backend", "bank-ok");
+
+  private final DockerCompose docker;
+  private final List<String> services;
+  private final long pollIntervalMillis;
+
+  private final Map<String, ContainerStats> startStats = new ConcurrentHashMap<>();
+  private final Map<String, Long> peakMemory = new ConcurrentHashMap<>();
+  private ScheduledExecutorService poller;
+  private long startNanos;
+
+  public ContainerResourceSampler() {
+    this(new DockerCompose(), DEFAULT_SERVICES,
+        Long.getLong("perf.sampler.intervalMillis", 1_000));
+  }
+
+  public ContainerResourceSampler(DockerCompose docker, List<String> services,
+      long pollIntervalMillis) {
+    this.docker = docker;
+    this.services = services;
+    this.pollIntervalMillis = pollIntervalMillis;
+  }
+
+  public List<String> services() {
+    return services;
+  }
+
+  public ContainerStats read(String service) {
+    return ContainerStats.parse(docker.exec(service, ContainerStats.READ_COMMAND));
+  }
+
+  public void start() {
+    startStats.clear();
+    peakMemory.clear();
+    for (String service : services) {
+      ContainerStats stats = read(service);
+      startStats.put(service, stats);
+      peakMemory.put(service, stats.memoryBytes());
+    }
+    startNanos = System.nanoTime();
+
+    poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "container-resource-sampler");
+      thread.setDaemon(true);
+      return thread;
+    });
+    poller.scheduleAtFixedRate(this::pollMemory, pollIntervalMillis, pollIntervalMillis,
+        TimeUnit.MILLISECONDS);
+  }
+
+  public Map<String, ResourceUsage> stop() {
+    if (poller == null) {
+      throw new IllegalStateException("Sampler was not started");
+    }
+    poller.shutdownNow();
+    poller = null;
+    long elapsedNanos = System.nanoTime() - startNanos;
+
+    Map<String, ResourceUsage> usage = new LinkedHashMap<>();
+    for (String service : services) {
+      ContainerStats start = startStats.get(service);
+      ContainerStats end = read(service);
+      long peak = Math.max(peakMemory.get(service), end.memoryBytes());
+      usage.put(service, new ResourceUsage(service,
+          end.cpuUsageMicros() - start.cpuUsageMicros(), elapsedNanos,
+          start.memoryBytes(), end.memoryBytes(), peak));
+    }
+    return usage;
+  }
+
+  /**
+   * Measures how much CPU each service burns while no load is applied, in CPU microseconds per
+   * wall-clock second, so that background work can be subtracted from per-operation costs.
+   */
+  public Map<String, Double> measureIdle(long windowMillis) throws InterruptedException {
+    Map<String, ResourceUsage> window;
+    start();
+    try {
+      Thread.sleep(windowMillis);
+    } finally {
+      window = stop();
+    }
+    Map<String, Double> idle = new LinkedHashMap<>();
+    window.forEach((service, usage) -> idle.put(service, usage.cpuMicrosPerSecond()));
+    return idle;
+  }
+
+  private void pollMemory() {
+    for (String service : services) {
+      try {
+        long memory = read(service).memoryBytes();
+        peakMemory.merge(service, memory, Math::max);
+      } catch (RuntimeException e) {
+        // A missed sample only lowers the peak estimate; the end-of-window read still happens.
+      }
+    }
+  }
+}
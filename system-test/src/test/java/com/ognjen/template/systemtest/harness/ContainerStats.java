@@ -0,0 +1,38 @@
+package com.ognjen.template.systemtest.harness;
+
+/**
+ * A single reading of a container's cgroup counters: cumulative CPU time and current memory usage.
+ * Understands both cgroup v2 ({@code cpu.stat} + {@code memory.current}) and cgroup v1
+ * ({@code cpuacct.usage} + {@code memory.usage_in_bytes}) output.
+ */
+public record ContainerStats(long cpuUsageMicros, long memoryBytes) {
+
+  static final String READ_COMMAND =
+      "cat /sys/fs/cgroup/cpu.stat /sys/fs/cgroup/memory.current 2>/dev/null"
+          + " || cat /sys/fs/cgroup/cpuacct/cpuacct.usage /sys/fs/cgroup/memory/memory.usage_in_bytes";
+
+  public static ContainerStats parse(String output) {
+    String[] lines = output.trim().split("\\R");
+    long cpuUsageMicros = -1;
+    long memoryBytes = -1;
+
+    if (output.contains("usage_usec")) {
+      for (String line : lines) {
+        String trimmed = line.trim();
+        if (trimmed.startsWith("usage_usec ")) {
+          cpuUsageMicros = Long.parseLong(trimmed.substring("usage_usec ".length()).trim());
+        } else if (!trimmed.isEmpty() && trimmed.chars().allMatch(Character::isDigit)) {
+          memoryBytes = Long.parseLong(trimmed);
+        }
+      }
+    } else if (lines.length >= 2) {
+      cpuUsageMicros = Long.parseLong(lines[0].trim()) / 1_000;
+      memoryBytes = Long.parseLong(lines[1].trim());
+    }
+
+    if (cpuUsageMicros < 0 || memoryBytes < 0) {
+      throw new IllegalArgumentException("Unrecognized cgroup stats output: " + output);
+    }
+    return new ContainerStats(cpuUsageMicros, memoryBytes);
+  }
+}
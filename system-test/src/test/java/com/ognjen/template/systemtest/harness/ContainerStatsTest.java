@@ -0,0 +1,42 @@
+package com.ognjen.template.systemtest.harness;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ContainerStatsTest {
+
+  @Test
+  void givenCgroupV2Output_whenParsing_thenReadUsageUsecAndMemoryCurrent() {
+    String output = """
+        usage_usec 8123456
+        user_usec 6000000
+        system_usec 2123456
+        nr_periods 0
+        nr_throttled 0
+        throttled_usec 0
+        268435456
+        """;
+
+    ContainerStats stats = ContainerStats.parse(output);
+
+    assertEquals(8_123_456, stats.cpuUsageMicros());
+    assertEquals(268_435_456, stats.memoryBytes());
+  }
+
+  @Test
+  void givenCgroupV1Output_whenParsing_thenConvertNanosToMicros() {
+    String output = "8123456789\n134217728\n";
+
+    ContainerStats stats = ContainerStats.parse(output);
+
+    assertEquals(8_123_456, stats.cpuUsageMicros());
+    assertEquals(134_217_728, stats.memoryBytes());
+  }
+
+  @Test
+  void givenUnexpectedOutput_whenParsing_thenFail() {
+    assertThrows(IllegalArgumentException.class, () -> ContainerStats.parse("cat: not found"));
+  }
+}
@@ -0,0 +1,19 @@
+package com.ognjen.template.systemtest.harness;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * Restores the named {@link Fixtures fixture} into the application database before the test
+ * class runs. Pass {@code -Dfixtures.skip=true} to run against whatever data is already there.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(DatabaseFixtureExtension.class)
+public @interface DatabaseFixture {
+
+  String value();
+}
@@ -0,0 +1,21 @@
+package com.ognjen.template.systemtest.harness;
+
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+
+public class DatabaseFixtureExtension implements BeforeAllCallback {
+
+  @Override
+  public void beforeAll(ExtensionContext context) throws Exception {
+    if (Boolean.getBoolean("fixtures.skip")) {
+      return;
+    }
+    DatabaseFixture annotation = AnnotationSupport.findAnnotation(context.getRequiredTestClass(),
+            DatabaseFixture.class)
+        .orElseThrow();
+
+    long millis = PostgresFixtures.shared().restore(Fixtures.named(annotation.value()));
+    context.publishReportEntry("fixture", annotation.value() + " restored in " + millis + " ms");
+  }
+}
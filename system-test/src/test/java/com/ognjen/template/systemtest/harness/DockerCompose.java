@@ -0,0 +1,108 @@
+package com.ognjen.template.systemtest.harness;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs {@code docker} / {@code docker compose} commands against the stack described by
+ * {@code docker-compose.yml} in the system-test folder, optionally layered with override files.
+ * Container ids are cached for all instances, since they all address the same compose project.
+ */
+public class DockerCompose {
+
+  private static final long COMMAND_TIMEOUT_SECONDS = 300;
+
+  private static final Map<String, String> containerIds = new ConcurrentHashMap<>();
+
+  private final List<String> composeFiles;
+
+  public DockerCompose() {
+    this(System.getProperty("perf.compose.file", "docker-compose.yml"));
+  }
+
+  public DockerCompose(String composeFile) {
+    this(List.of(composeFile));
+  }
+
+  private DockerCompose(List<String> composeFiles) {
+    this.composeFiles = composeFiles;
+  }
+
+  public String composeFile() {
+    return composeFiles.get(0);
+  }
+
+  /** The same stack with {@code overrideFile} merged on top of the files used so far. */
+  public DockerCompose withOverride(Path overrideFile) {
+    List<String> files = new ArrayList<>(composeFiles);
+    files.add(overrideFile.toAbsolutePath().toString());
+    return new DockerCompose(List.copyOf(files));
+  }
+
+  public String containerId(String service) {
+    return containerIds.computeIfAbsent(service, key -> {
+      String id = compose("ps", "-q", key).trim();
+      if (id.isEmpty()) {
+        throw new IllegalStateException("No running container for service: " + key);
+      }
+      return id.lines().findFirst().orElseThrow();
+    });
+  }
+
+  public String exec(String service, String shellCommand) {
+    return docker("exec", containerId(service), "sh", "-c", shellCommand);
+  }
+
+  public String execCommand(String service, String... command) {
+    List<String> args = new ArrayList<>(List.of("exec", containerId(service)));
+    args.addAll(Arrays.asList(command));
+    return docker(args.toArray(String[]::new));
+  }
+
+  public String compose(String... args) {
+    List<String> command = new ArrayList<>(List.of("docker", "compose"));
+    for (String file : composeFiles) {
+      command.addAll(List.of("-f", file));
+    }
+    command.addAll(Arrays.asList(args));
+    return run(command);
+  }
+
+  public String docker(String... args) {
+    List<String> command = new ArrayList<>(List.of("docker"));
+    command.addAll(Arrays.asList(args));
+    return run(command);
+  }
+
+  public void forgetContainers() {
+    containerIds.clear();
+  }
+
+  private static String run(List<String> command) {
+    try {
+      Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+      String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+      if (!process.waitFor(COMMAND_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+        process.destroyForcibly();
+        throw new IllegalStateException("Timed out running: " + String.join(" ", command));
+      }
+      if (process.exitValue() != 0) {
+        throw new IllegalStateException("Command failed (" + process.exitValue() + "): "
+            + String.join(" ", command) + "\n" + output);
+      }
+      return output;
+    } catch (IOException e) {
+      throw new IllegalStateException("Could not run: " + String.join(" ", command), e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted running: " + String.join(" ", command), e);
+    }
+  }
+}
@@ -0,0 +1,20 @@
+package com.ognjen.template.systemtest.harness;
+
+/**
+ * A named, seeded dataset. The seeder runs once against an empty database through the public
+ * API; the result is kept as a Postgres template database and restored from there.
+ */
+public record Fixture(String name, Seeder seeder) {
+
+  @FunctionalInterface
+  public interface Seeder {
+
+    void seed(BudgetOkClient api) throws Exception;
+  }
+
+  public Fixture {
+    if (!name.matches("[a-z0-9_]+")) {
+      throw new IllegalArgumentException("Fixture name must be lower-case snake_case: " + name);
+    }
+  }
+}
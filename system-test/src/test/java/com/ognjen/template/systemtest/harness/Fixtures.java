@@ -0,0 +1,99 @@
+package com.ognjen.template.systemtest.harness;
+
+import java.net.http.HttpResponse;
+
+/**
+ * The datasets tests and scenarios can start from, referenced by name from
+ * {@link DatabaseFixture}.
+ */
+public final class Fixtures {
+
+  /** No envelopes at all; only the schema. */
+  public static final String EMPTY = "empty";
+
+  /**
+   * What the functional suite expects to exist: the "electronics" envelope Bank OK syncs into and
+   * the envelopes each E2E class reads, updates or transfers between, looked up by name.
+   */
+  public static final String FUNCTIONAL = "functional";
+
+  /** Many envelopes with expenses, sized by {@code fixtures.large.envelopes} and {@code fixtures.large.expenses}. */
+  public static final String LARGE = "large";
+
+  private static final int SEED_VIRTUAL_USERS = 8;
+
+  private Fixtures() {
+  }
+
+  public static Fixture named(String name) {
+    return switch (name) {
+      case EMPTY -> new Fixture(EMPTY, api -> {
+      });
+      case FUNCTIONAL -> new Fixture(FUNCTIONAL, Fixtures::seedFunctional);
+      case LARGE -> large(Integer.getInteger("fixtures.large.envelopes", 200),
+          Integer.getInteger("fixtures.large.expenses", 20));
+      default -> throw new IllegalArgumentException("Unknown fixture: " + name);
+    };
+  }
+
+  private static void seedFunctional(BudgetOkClient api) throws Exception {
+    api.createEnvelopeId("electronics", 100_000);
+
+    // EnvelopeCrudE2eTest
+    api.createEnvelopeId("Groceries", 1000);
+    api.createEnvelopeId("Entertainment", 500);
+    api.createEnvelopeId("Utilities", 300);
+    api.createEnvelopeId("Shopping", 750);
+    api.createEnvelopeId("Old Name", 1000);
+    api.createEnvelopeId("To Delete", 500);
+
+    // ExpenseCrudE2eTest
+    api.createEnvelopeId("Household", 1000);
+    api.createEnvelopeId("Refunds", 500);
+    api.createEnvelopeId("Mixed Transactions", 2000);
+    long vacationFundId = api.createEnvelopeId("Vacation Fund", 3000);
+    seedExpense(api, vacationFundId, 500, "Flight");
+    seedExpense(api, vacationFundId, 200, "Hotel");
+    seedExpense(api, vacationFundId, 100, "Meals");
+
+    // EnvelopeTransferE2eTest
+    api.createEnvelopeId("Transfer From", 1000);
+    api.createEnvelopeId("Transfer To", 500);
+    api.createEnvelopeId("Limited Budget", 50);
+    api.createEnvelopeId("Target", 500);
+    api.createEnvelopeId("Source", 1000);
+  }
+
+  private static void seedExpense(BudgetOkClient api, long envelopeId, int amount, String memo)
+      throws Exception {
+    HttpResponse<String> response = api.addExpense(envelopeId, amount, memo, "WITHDRAW");
+    if (response.statusCode() != 201) {
+      throw new IllegalStateException("Failed to seed expense: " + response.body());
+    }
+  }
+
+  public static Fixture large(int envelopes, int expensesPerEnvelope) {
+    String name = LARGE + "_" + envelopes + "x" + expensesPerEnvelope;
+    return new Fixture(name, api -> {
+      OperationMetrics metrics = new OperationMetrics();
+      LoadRunner runner = new LoadRunner(metrics, "seed " + name);
+      runner.run("seed", SEED_VIRTUAL_USERS, envelopes, iteration -> {
+        long envelopeId = api.createEnvelopeId("Envelope " + iteration,
+            expensesPerEnvelope * 100 + 1_000);
+        HttpResponse<String> response = null;
+        for (int i = 0; i < expensesPerEnvelope; i++) {
+          response = api.addExpense(envelopeId, 1 + i % 50, "Seeded expense " + i,
+              i % 5 == 0 ? "DEPOSIT" : "WITHDRAW");
+          if (response.statusCode() != 201) {
+            throw new IllegalStateException("Failed to seed expense: " + response.body());
+          }
+        }
+        return response != null ? response : api.getEnvelope(envelopeId);
+      });
+      if (metrics.errorCount("seed") > 0) {
+        throw new IllegalStateException("Failed to seed " + metrics.errorCount("seed")
+            + " envelopes");
+      }
+    });
+  }
+}
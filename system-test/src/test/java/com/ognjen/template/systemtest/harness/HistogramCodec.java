@@ -0,0 +1,34 @@
+package com.ognjen.template.systemtest.harness;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.zip.DataFormatException;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Encodes histograms as single-line Base64 text in HdrHistogram's compressed format, so they can
+ * travel over a line-based socket protocol without losing any buckets.
+ */
+public final class HistogramCodec {
+
+  private HistogramCodec() {
+  }
+
+  public static String encode(Histogram histogram) {
+    ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+    int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+    byte[] bytes = new byte[length];
+    buffer.flip();
+    buffer.get(bytes);
+    return Base64.getEncoder().encodeToString(bytes);
+  }
+
+  public static Histogram decode(String encoded) {
+    try {
+      return Histogram.decodeFromCompressedByteBuffer(
+          ByteBuffer.wrap(Base64.getDecoder().decode(encoded)), 0);
+    } catch (DataFormatException e) {
+      throw new IllegalArgumentException("Not a compressed histogram: " + encoded, e);
+    }
+  }
+}
@@ -0,0 +1,31 @@
+package com.ognjen.template.systemtest.harness;
+
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class HistogramCodecTest {
+
+  @Test
+  void givenEncodedWorkerHistograms_whenMerging_thenPercentilesMatchSingleHistogram() {
+    Histogram firstWorker = new Histogram(3);
+    Histogram secondWorker = new Histogram(3);
+    Histogram everything = new Histogram(3);
+    for (long value = 1; value <= 10_000; value++) {
+      (value % 2 == 0 ? firstWorker : secondWorker).recordValue(value * 37);
+      everything.recordValue(value * 37);
+    }
+
+    OperationMetrics merged = new OperationMetrics();
+    merged.merge("get-envelope", HistogramCodec.decode(HistogramCodec.encode(firstWorker)), 1, 10);
+    merged.merge("get-envelope", HistogramCodec.decode(HistogramCodec.encode(secondWorker)), 2, 20);
+
+    Histogram result = merged.latency("get-envelope");
+    assertEquals(everything.getTotalCount(), result.getTotalCount());
+    assertEquals(everything.getValueAtPercentile(99), result.getValueAtPercentile(99));
+    assertEquals(everything.getMaxValue(), result.getMaxValue());
+    assertEquals(3, merged.errorCount("get-envelope"));
+    assertEquals(30, merged.bytes("get-envelope"));
+  }
+}
@@ -0,0 +1,221 @@
+package com.ognjen.template.systemtest.harness;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Cuts a run into fixed intervals (one second by default) and writes one histogram per operation
+ * and interval to an HdrHistogram log ({@code .hlog}) under {@code intervals/} in the results
+ * folder, so slowdowns during GC pauses, syncs or autovacuum stay visible on a timeline instead of
+ * disappearing into the run's totals. Each interval is also printed as one console line with
+ * throughput, p99 and errors while the run is in progress.
+ *
+ * <p>Operation names are URL-encoded into the histogram tags. Errors are logged as a second
+ * histogram per operation, tagged {@code <operation>!errors}, whose count is the number of errors
+ * in that interval. Phase markers are comment lines ({@code #Phase: <seconds> <name>}).
+ * {@link IntervalLogReport} reads the log back.
+ *
+ * <p>Enabled unless {@code -Dperf.intervals=false}; the interval is {@code perf.intervalMillis}
+ * and the console view is turned off with {@code -Dperf.live=false}.
+ */
+public class IntervalLog implements OperationMetrics.Listener, AutoCloseable {
+
+  static final String ERRORS_SUFFIX = "!errors";
+  static final String PHASE_PREFIX = "Phase: ";
+
+  private static final int SIGNIFICANT_DIGITS = 3;
+  private static final AtomicInteger sequence = new AtomicInteger();
+
+  private final OperationMetrics metrics;
+  private final Path file;
+  private final PrintStream console;
+  private final long startMillis;
+  private final Map<String, Recorder> recorders = new ConcurrentHashMap<>();
+  private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+  private HistogramLogWriter writer;
+  private ScheduledExecutorService ticker;
+  private long lastTickMillis;
+  private boolean closed;
+
+  IntervalLog(OperationMetrics metrics, Path file, PrintStream console) {
+    this.metrics = metrics;
+    this.file = file;
+    this.console = console;
+    this.startMillis = System.currentTimeMillis();
+    this.lastTickMillis = startMillis;
+  }
+
+  /**
+   * Starts logging everything recorded into {@code metrics} until the returned log is closed.
+   * Returns {@code null} when interval logging is disabled, or, with a warning, when another log
+   * is already attached to the same metrics; the file is only created once the log is attached.
+   */
+  public static IntervalLog start(OperationMetrics metrics, String name) {
+    if ("false".equals(System.getProperty("perf.intervals"))) {
+      return null;
+    }
+    String fileName = String.format(Locale.ROOT, "%s-%tY%<tm%<td-%<tH%<tM%<tS-%d.hlog",
+        name.replaceAll("[^A-Za-z0-9._-]+", "_"), System.currentTimeMillis(),
+        sequence.incrementAndGet());
+    PrintStream console = "false".equals(System.getProperty("perf.live")) ? null : System.out;
+    IntervalLog log = new IntervalLog(metrics,
+        PerfReport.RESULTS_DIR.resolve("intervals").resolve(fileName), console);
+    if (!metrics.attach(log)) {
+      System.err.println("No interval log for " + name + ": another run is already logging the"
+          + " same metrics");
+      return null;
+    }
+    try {
+      log.open();
+    } catch (RuntimeException e) {
+      metrics.detach(log);
+      throw e;
+    }
+    long intervalMillis = Long.getLong("perf.intervalMillis", 1_000);
+    log.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "interval-log");
+      thread.setDaemon(true);
+      return thread;
+    });
+    log.ticker.scheduleAtFixedRate(log::tick, intervalMillis, intervalMillis,
+        TimeUnit.MILLISECONDS);
+    return log;
+  }
+
+  public Path file() {
+    return file;
+  }
+
+  /** Creates the log file and writes its header. */
+  synchronized void open() {
+    try {
+      Files.createDirectories(file.getParent());
+      writer = new HistogramLogWriter(file.toFile());
+    } catch (IOException e) {
+      throw new IllegalStateException("Could not create interval log " + file, e);
+    }
+    writer.outputLogFormatVersion();
+    writer.outputStartTime(startMillis);
+    writer.setBaseTime(startMillis);
+    writer.outputBaseTime(startMillis);
+    writer.outputLegend();
+  }
+
+  @Override
+  public void onSuccess(String operation, long latencyMicros) {
+    recorder(operation).recordValue(latencyMicros);
+  }
+
+  @Override
+  public void onError(String operation) {
+    recorder(operation);
+    errors.computeIfAbsent(operation, key -> new LongAdder()).increment();
+  }
+
+  /** Marks the start of a named phase at the current point of the timeline. */
+  public synchronized void markPhase(String name) {
+    if (writer != null && !closed) {
+      writer.outputComment(PHASE_PREFIX + String.format(Locale.ROOT, "%.3f",
+          (System.currentTimeMillis() - startMillis) / 1000.0) + " " + encode(name));
+    }
+  }
+
+  /** Writes the interval that ended now and prints its console line. */
+  synchronized void tick() {
+    if (writer == null || closed) {
+      return;
+    }
+    long now = System.currentTimeMillis();
+    double seconds = (now - lastTickMillis) / 1000.0;
+    lastTickMillis = now;
+    Histogram total = new Histogram(SIGNIFICANT_DIGITS);
+    long totalErrors = 0;
+    StringJoiner operations = new StringJoiner(" | ");
+    for (Map.Entry<String, Recorder> entry : new TreeMap<>(recorders).entrySet()) {
+      String operation = entry.getKey();
+      Histogram interval = entry.getValue().getIntervalHistogram();
+      LongAdder errorCounter = errors.get(operation);
+      long intervalErrors = errorCounter != null ? errorCounter.sumThenReset() : 0;
+      if (interval.getTotalCount() == 0 && intervalErrors == 0) {
+        continue;
+      }
+
+      interval.setTag(encode(operation));
+      writer.outputIntervalHistogram(interval);
+      if (intervalErrors > 0) {
+        Histogram errorCount = new Histogram(SIGNIFICANT_DIGITS);
+        errorCount.recordValueWithCount(0, intervalErrors);
+        errorCount.setStartTimeStamp(interval.getStartTimeStamp());
+        errorCount.setEndTimeStamp(interval.getEndTimeStamp());
+        errorCount.setTag(encode(operation) + ERRORS_SUFFIX);
+        writer.outputIntervalHistogram(errorCount);
+      }
+
+      total.add(interval);
+      totalErrors += intervalErrors;
+      operations.add(consoleEntry(operation, interval, intervalErrors, seconds));
+    }
+
+    if (console != null && (total.getTotalCount() > 0 || totalErrors > 0)) {
+      console.printf(Locale.ROOT, "[%6.1fs] %s | %s%n", (now - startMillis) / 1000.0,
+          consoleEntry("total", total, totalErrors, seconds), operations);
+    }
+  }
+
+  @Override
+  public synchronized void close() {
+    if (closed) {
+      return;
+    }
+    if (ticker != null) {
+      ticker.shutdownNow();
+    }
+    metrics.detach(this);
+    tick();
+    closed = true;
+    if (writer == null) {
+      return;
+    }
+    writer.close();
+    if (console != null) {
+      console.println("Interval log: " + file);
+    }
+  }
+
+  static String encode(String operation) {
+    return URLEncoder.encode(operation, StandardCharsets.UTF_8);
+  }
+
+  static String decode(String tag) {
+    return URLDecoder.decode(tag, StandardCharsets.UTF_8);
+  }
+
+  private Recorder recorder(String operation) {
+    return recorders.computeIfAbsent(operation, key -> new Recorder(SIGNIFICANT_DIGITS));
+  }
+
+  private static String consoleEntry(String operation, Histogram interval, long errors,
+      double seconds) {
+    double rate = seconds > 0 ? interval.getTotalCount() / seconds : 0;
+    return String.format(Locale.ROOT, "%s %.0f/s p99 %.1fms err %d", operation, rate,
+        interval.getValueAtPercentile(99) / 1000.0, errors);
+  }
+}
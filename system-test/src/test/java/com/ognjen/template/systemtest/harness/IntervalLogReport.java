@@ -0,0 +1,174 @@
+package com.ognjen.template.systemtest.harness;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import org.HdrHistogram.EncodableHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogReader;
+
+/**
+ * Turns an {@link IntervalLog} back into reports: a per-second timeline CSV for plotting and a
+ * latency table per phase. Phases come from the command line ({@code name=from-to}, in seconds
+ * since the start of the run), otherwise from the phase markers in the log, otherwise from
+ * fixed windows ({@code --every=<seconds>}), otherwise the whole run is one phase.
+ *
+ * <pre>
+ * IntervalLogReport target/perf-results/intervals/ui-load-20260101-120000-1.hlog warmup=0-10 \
+ *     steady=10-60
+ * </pre>
+ */
+public class IntervalLogReport {
+
+  public record Interval(String operation, double startSeconds, double endSeconds,
+                         Histogram latency, long errors) {
+  }
+
+  public record Phase(String name, double fromSeconds, double toSeconds) {
+  }
+
+  public record Log(List<Interval> intervals, List<Phase> markers, double lengthSeconds) {
+  }
+
+  public static void main(String[] args) throws IOException {
+    if (args.length < 1) {
+      System.err.println(
+          "Usage: IntervalLogReport <file.hlog> [--every=<seconds>] [<phase>=<from>-<to> ...]");
+      System.exit(2);
+    }
+    Path file = Path.of(args[0]);
+    Log log = read(file);
+
+    List<Phase> phases = new ArrayList<>();
+    double every = 0;
+    for (int i = 1; i < args.length; i++) {
+      if (args[i].startsWith("--every=")) {
+        every = Double.parseDouble(args[i].substring("--every=".length()));
+      } else {
+        String[] phase = args[i].split("=", 2);
+        String[] range = phase[1].split("-", 2);
+        phases.add(new Phase(phase[0], Double.parseDouble(range[0]),
+            Double.parseDouble(range[1])));
+      }
+    }
+    if (phases.isEmpty()) {
+      phases = !log.markers().isEmpty() ? log.markers() : windows(log, every);
+    }
+
+    String stem = file.getFileName().toString().replaceFirst("\\.hlog$", "");
+    timeline(log).writeCsv(stem + "-timeline.csv");
+    PerfReport report = phases(log, phases);
+    report.print();
+    report.writeCsv(stem + "-phases.csv");
+  }
+
+  public static Log read(Path file) throws IOException {
+    List<Interval> intervals = new ArrayList<>();
+    double lengthSeconds = 0;
+    try (HistogramLogReader reader = new HistogramLogReader(file.toFile())) {
+      EncodableHistogram next;
+      while ((next = reader.nextIntervalHistogram()) != null) {
+        Histogram histogram = (Histogram) next;
+        double start = histogram.getStartTimeStamp() / 1000.0 - reader.getStartTimeSec();
+        double end = histogram.getEndTimeStamp() / 1000.0 - reader.getStartTimeSec();
+        lengthSeconds = Math.max(lengthSeconds, end);
+
+        String tag = histogram.getTag();
+        if (tag.endsWith(IntervalLog.ERRORS_SUFFIX)) {
+          String operation = IntervalLog.decode(
+              tag.substring(0, tag.length() - IntervalLog.ERRORS_SUFFIX.length()));
+          intervals.add(new Interval(operation, start, end, new Histogram(3),
+              histogram.getTotalCount()));
+        } else {
+          histogram.setTag(null);
+          intervals.add(new Interval(IntervalLog.decode(tag), start, end, histogram, 0));
+        }
+      }
+    }
+    return new Log(intervals, markers(file, lengthSeconds), lengthSeconds);
+  }
+
+  /** One row per operation and interval, in log order. */
+  public static PerfReport timeline(Log log) {
+    PerfReport report = new PerfReport("Timeline", "start_s", "end_s", "operation", "ok",
+        "errors", "p50_us", "p99_us", "max_us");
+    for (Interval interval : log.intervals()) {
+      Histogram latency = interval.latency();
+      report.row(interval.startSeconds(), interval.endSeconds(),
+          interval.operation(), latency.getTotalCount(), interval.errors(),
+          latency.getValueAtPercentile(50), latency.getValueAtPercentile(99),
+          latency.getMaxValue());
+    }
+    return report;
+  }
+
+  /**
+   * Latency table per phase and operation. An interval belongs to the phase its midpoint falls
+   * in, so with one-second intervals phase edges are accurate to half a second; throughput is
+   * taken over the intervals that fell in the phase.
+   */
+  public static PerfReport phases(Log log, List<Phase> phases) {
+    PerfReport report = new PerfReport("Phases", "phase", "from_s", "to_s", "operation", "ok",
+        "errors", "throughput_rps", "p50_us", "p90_us", "p99_us", "p999_us", "max_us");
+    for (Phase phase : phases) {
+      OperationMetrics metrics = new OperationMetrics();
+      double first = Double.MAX_VALUE;
+      double last = 0;
+      for (Interval interval : log.intervals()) {
+        double middle = (interval.startSeconds() + interval.endSeconds()) / 2;
+        if (middle >= phase.fromSeconds() && middle < phase.toSeconds()) {
+          metrics.merge(interval.operation(), interval.latency(), interval.errors(), 0);
+          first = Math.min(first, interval.startSeconds());
+          last = Math.max(last, interval.endSeconds());
+        }
+      }
+      double seconds = Math.max(last - first, 1e-9);
+      for (String operation : metrics.operations()) {
+        Histogram latency = metrics.latency(operation);
+        report.row(phase.name(), phase.fromSeconds(), phase.toSeconds(),
+            operation, latency.getTotalCount(), metrics.errorCount(operation),
+            latency.getTotalCount() / seconds, latency.getValueAtPercentile(50),
+            latency.getValueAtPercentile(90), latency.getValueAtPercentile(99),
+            latency.getValueAtPercentile(99.9), latency.getMaxValue());
+      }
+    }
+    return report;
+  }
+
+  // Phase markers are comments, which HistogramLogReader skips, so they are read separately.
+  // Each phase lasts until the next marker or the end of the log.
+  private static List<Phase> markers(Path file, double lengthSeconds) throws IOException {
+    List<String[]> marks = new ArrayList<>();
+    for (String line : Files.readAllLines(file)) {
+      if (line.startsWith("#" + IntervalLog.PHASE_PREFIX)) {
+        marks.add(line.substring(IntervalLog.PHASE_PREFIX.length() + 1).split(" ", 2));
+      }
+    }
+    List<Phase> phases = new ArrayList<>();
+    for (int i = 0; i < marks.size(); i++) {
+      double from = Double.parseDouble(marks.get(i)[0]);
+      double to = i + 1 < marks.size() ? Double.parseDouble(marks.get(i + 1)[0])
+          : Math.max(lengthSeconds, from);
+      phases.add(new Phase(IntervalLog.decode(marks.get(i)[1]), from, to));
+    }
+    if (!phases.isEmpty() && phases.get(0).fromSeconds() > 0) {
+      phases.add(0, new Phase("before " + phases.get(0).name(), 0, phases.get(0).fromSeconds()));
+    }
+    return phases;
+  }
+
+  private static List<Phase> windows(Log log, double every) {
+    if (every <= 0) {
+      return List.of(new Phase("run", 0, log.lengthSeconds()));
+    }
+    List<Phase> windows = new ArrayList<>();
+    for (double from = 0; from < log.lengthSeconds(); from += every) {
+      windows.add(new Phase(String.format(Locale.ROOT, "%.0fs", from), from,
+          Math.min(from + every, log.lengthSeconds())));
+    }
+    return windows;
+  }
+}
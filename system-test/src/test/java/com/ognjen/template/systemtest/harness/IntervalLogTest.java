@@ -0,0 +1,50 @@
+package com.ognjen.template.systemtest.harness;
+
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class IntervalLogTest {
+
+  @TempDir
+  Path folder;
+
+  @Test
+  void givenRunWithPhaseMarker_whenReadingLogBack_thenIntervalsAndPhasesArePreserved()
+      throws Exception {
+    OperationMetrics metrics = new OperationMetrics();
+    Path file = folder.resolve("run.hlog");
+    try (IntervalLog log = new IntervalLog(metrics, file, null)) {
+      metrics.attach(log);
+      log.open();
+      for (int i = 1; i <= 100; i++) {
+        metrics.recordSuccess("GET /api/envelopes/{id}", i * 1_000_000L);
+      }
+      Thread.sleep(100);
+      log.tick();
+
+      log.markPhase("sync burst");
+      for (int i = 1; i <= 10; i++) {
+        metrics.recordSuccess("GET /api/envelopes/{id}", 500_000_000L);
+      }
+      metrics.recordError("GET /api/envelopes/{id}");
+      Thread.sleep(100);
+    }
+
+    IntervalLogReport.Log log = IntervalLogReport.read(file);
+
+    assertEquals(List.of("before sync burst", "sync burst"),
+        log.markers().stream().map(IntervalLogReport.Phase::name).toList());
+    assertEquals(3, log.intervals().size());
+    assertEquals("GET /api/envelopes/{id}", log.intervals().get(0).operation());
+
+    List<List<String>> rows = IntervalLogReport.phases(log, log.markers()).rows();
+    assertEquals(2, rows.size());
+    assertEquals(List.of("100", "0"), rows.get(0).subList(4, 6));
+    assertEquals(List.of("10", "1"), rows.get(1).subList(4, 6));
+    assertEquals(110, metrics.latency("GET /api/envelopes/{id}").getTotalCount());
+  }
+}
@@ -0,0 +1,232 @@
+package com.ognjen.template.systemtest.harness;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.LongSummaryStatistics;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives a distributed load run. Workers ({@link LoadWorker}) connect over TCP, each runs the
+ * same named {@link Scenario}, they all start at one wall-clock instant, and their histograms are
+ * merged losslessly into one {@link OperationMetrics}. Workers on other machines need clocks
+ * synchronised with the coordinator's, for example through NTP.
+ *
+ * <p>The protocol is line based: {@code HELLO name}, {@code PREPARE scenario users millis},
+ * {@code READY}, {@code START epochMillis} naming the instant to start at, then
+ * {@code STARTED epochMillis} as the worker begins, one {@code RESULT operation count errors
+ * bytes histogram} per operation and {@code DONE}. The count is the worker's own success count,
+ * sent next to the histogram so the transfer can be checked. Worker names must be unique.
+ */
+public class LoadCoordinator implements AutoCloseable {
+
+  static final String HELLO = "HELLO";
+  static final String PREPARE = "PREPARE";
+  static final String READY = "READY";
+  static final String FAILED = "FAILED";
+  static final String START = "START";
+  static final String STARTED = "STARTED";
+  static final String RESULT = "RESULT";
+  static final String DONE = "DONE";
+
+  private static final int CONNECT_TIMEOUT_MILLIS = 120_000;
+  private static final long RESULT_GRACE_MILLIS = 120_000;
+  // Preparing authenticated scenarios provisions users and data for each of them, which can take
+  // far longer than the run itself.
+  private static final int PREPARE_TIMEOUT_MILLIS =
+      (int) TimeUnit.SECONDS.toMillis(Long.getLong("perf.worker.prepareTimeoutSeconds", 1_800));
+  // Far enough ahead for START to reach every worker before the instant it names.
+  private static final long START_DELAY_MILLIS = Long.getLong("perf.worker.startDelayMillis",
+      1_000);
+
+  public record Result(OperationMetrics merged, Map<String, WorkerResult> perWorker,
+                       Duration elapsed) {
+
+    /** Milliseconds between the first and the last worker starting, by the workers' clocks. */
+    public long startSkewMillis() {
+      LongSummaryStatistics starts = perWorker.values().stream()
+          .mapToLong(WorkerResult::startedAtMillis)
+          .summaryStatistics();
+      return starts.getMax() - starts.getMin();
+    }
+  }
+
+  /**
+   * What one worker sent back: its decoded histograms, the success counts it reported per
+   * operation and the wall-clock time it started at.
+   */
+  public record WorkerResult(OperationMetrics metrics, Map<String, Long> reportedCounts,
+                             long startedAtMillis) {
+  }
+
+  private final ServerSocket server;
+  private final List<Process> localWorkers = new ArrayList<>();
+
+  public LoadCoordinator(int port) throws IOException {
+    this.server = new ServerSocket(port);
+  }
+
+  public static void main(String[] args) throws Exception {
+    if (args.length < 5) {
+      System.err.println(
+          "Usage: LoadCoordinator <port> <workers> <scenario> <users-per-worker> <seconds>");
+      System.exit(2);
+    }
+    try (LoadCoordinator coordinator = new LoadCoordinator(Integer.parseInt(args[0]))) {
+      Result result = coordinator.run(Integer.parseInt(args[1]), args[2],
+          Integer.parseInt(args[3]), Duration.ofSeconds(Long.parseLong(args[4])));
+      PerfReport.latencies("Distributed " + args[2], result.merged(), result.elapsed()).print();
+      System.out.println("Worker start skew: " + result.startSkewMillis() + " ms");
+    }
+  }
+
+  public int port() {
+    return server.getLocalPort();
+  }
+
+  /**
+   * Starts worker JVMs on this machine with the current classpath. Each worker's output goes to
+   * {@code worker-N.log} in the results folder; {@code perf.*} and target URL properties are
+   * passed on. When {@code perf.worker.cpus} is set (for example {@code 0-1;2-3}), worker N is
+   * pinned to the N-th CPU list with {@code taskset}.
+   */
+  public void spawnLocalWorkers(int count) throws IOException {
+    String java = ProcessHandle.current().info().command().orElse("java");
+    String[] cpus = System.getProperty("perf.worker.cpus", "").split(";");
+    Files.createDirectories(PerfReport.RESULTS_DIR);
+
+    for (int i = 0; i < count; i++) {
+      List<String> command = new ArrayList<>();
+      if (i < cpus.length && !cpus[i].isBlank()) {
+        command.addAll(List.of("taskset", "-c", cpus[i].trim()));
+      }
+      command.addAll(List.of(java, "-cp", System.getProperty("java.class.path")));
+      System.getProperties().stringPropertyNames().stream()
+          .filter(key -> key.startsWith("perf.") || key.equals("backend.url")
+              || key.equals("bankok.url"))
+          .forEach(key -> command.add("-D" + key + "=" + System.getProperty(key)));
+      command.addAll(List.of(LoadWorker.class.getName(), "localhost", String.valueOf(port()),
+          "worker-" + i));
+
+      localWorkers.add(new ProcessBuilder(command)
+          .redirectErrorStream(true)
+          .redirectOutput(PerfReport.RESULTS_DIR.resolve("worker-" + i + ".log").toFile())
+          .start());
+    }
+  }
+
+  public Result run(int workers, String scenario, int usersPerWorker, Duration duration)
+      throws Exception {
+    Scenarios.named(scenario);
+    server.setSoTimeout(CONNECT_TIMEOUT_MILLIS);
+
+    Map<String, Connection> connections = new LinkedHashMap<>();
+    try {
+      while (connections.size() < workers) {
+        Connection connection = new Connection(server.accept());
+        connection.socket.setSoTimeout(PREPARE_TIMEOUT_MILLIS);
+        String name = connection.expect(HELLO).substring(HELLO.length()).trim();
+        if (connections.containsKey(name)) {
+          connection.socket.close();
+          throw new IllegalStateException("Two workers connected as " + name
+              + "; give each worker a unique name");
+        }
+        connections.put(name, connection);
+      }
+
+      for (Connection connection : connections.values()) {
+        connection.out.println(PREPARE + " " + scenario + " " + usersPerWorker + " "
+            + duration.toMillis());
+      }
+      for (Map.Entry<String, Connection> entry : connections.entrySet()) {
+        String reply = entry.getValue().in.readLine();
+        if (!READY.equals(reply)) {
+          throw new IllegalStateException(entry.getKey() + " could not prepare: " + reply);
+        }
+        entry.getValue().socket.setSoTimeout(
+            (int) (START_DELAY_MILLIS + duration.toMillis() + RESULT_GRACE_MILLIS));
+      }
+
+      long startAtMillis = System.currentTimeMillis() + START_DELAY_MILLIS;
+      long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(START_DELAY_MILLIS);
+      for (Connection connection : connections.values()) {
+        connection.out.println(START + " " + startAtMillis);
+      }
+
+      OperationMetrics merged = new OperationMetrics();
+      Map<String, WorkerResult> perWorker = new LinkedHashMap<>();
+      for (Map.Entry<String, Connection> entry : connections.entrySet()) {
+        WorkerResult workerResult = entry.getValue().readResults();
+        perWorker.put(entry.getKey(), workerResult);
+        merged.mergeAll(workerResult.metrics());
+      }
+      return new Result(merged, perWorker, Duration.ofNanos(System.nanoTime() - start));
+    } finally {
+      for (Connection connection : connections.values()) {
+        connection.socket.close();
+      }
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    for (Process worker : localWorkers) {
+      worker.destroy();
+    }
+    server.close();
+  }
+
+  private static final class Connection {
+
+    private final Socket socket;
+    private final BufferedReader in;
+    private final PrintWriter out;
+
+    private Connection(Socket socket) throws IOException {
+      this.socket = socket;
+      this.in = new BufferedReader(
+          new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+      this.out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+    }
+
+    private String expect(String command) throws IOException {
+      String line = in.readLine();
+      if (line == null || !line.startsWith(command)) {
+        throw new IllegalStateException("Expected " + command + " from worker but got: " + line);
+      }
+      return line;
+    }
+
+    private WorkerResult readResults() throws IOException {
+      long startedAtMillis = Long.parseLong(expect(STARTED).substring(STARTED.length()).trim());
+      OperationMetrics metrics = new OperationMetrics();
+      Map<String, Long> reportedCounts = new LinkedHashMap<>();
+      String line;
+      while ((line = in.readLine()) != null && !line.equals(DONE)) {
+        String[] parts = line.split(" ");
+        if (!parts[0].equals(RESULT) || parts.length != 6) {
+          throw new IllegalStateException("Unexpected line from worker: " + line);
+        }
+        String operation = URLDecoder.decode(parts[1], StandardCharsets.UTF_8);
+        reportedCounts.put(operation, Long.parseLong(parts[2]));
+        metrics.merge(operation, HistogramCodec.decode(parts[5]), Long.parseLong(parts[3]),
+            Long.parseLong(parts[4]));
+      }
+      if (line == null) {
+        throw new IllegalStateException("Worker disconnected before sending all results");
+      }
+      return new WorkerResult(metrics, reportedCounts, startedAtMillis);
+    }
+  }
+}
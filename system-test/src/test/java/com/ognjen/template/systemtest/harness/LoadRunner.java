@@ -0,0 +1,221 @@
+package com.ognjen.template.systemtest.harness;
+
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Load generator. In the closed model a fixed number of virtual users issue requests back to
+ * back; in the open model ({@link #runAtRate}) iterations start on a fixed schedule whether or not
+ * earlier ones have finished. Every call is timed and recorded into {@link OperationMetrics} under
+ * the given operation name; any status other than 2xx or 304 counts as an error. Each run is also
+ * written to an {@link IntervalLog} named after the runner.
+ */
+public class LoadRunner {
+
+  @FunctionalInterface
+  public interface Operation {
+
+    HttpResponse<?> call(int iteration) throws Exception;
+  }
+
+  @FunctionalInterface
+  public interface Iteration {
+
+    void run(int iteration) throws Exception;
+  }
+
+  /** Operation that {@link #runAtRate} records an error under for every iteration it dropped. */
+  public static final String NOT_STARTED = "not-started";
+
+  private static final long SHUTDOWN_GRACE_SECONDS = 60;
+
+  private final OperationMetrics metrics;
+  private final String name;
+  private final ThreadLocal<Long> intendedStart = new ThreadLocal<>();
+  private volatile IntervalLog intervalLog;
+
+  public LoadRunner(OperationMetrics metrics, String name) {
+    this.metrics = metrics;
+    this.name = name;
+  }
+
+  public OperationMetrics metrics() {
+    return metrics;
+  }
+
+  public void run(String operationName, int virtualUsers, int iterations, Operation operation)
+      throws Exception {
+    run(virtualUsers, iterations, iteration -> execute(operationName, iteration, operation));
+  }
+
+  /**
+   * Runs the body on every virtual user until the requested number of iterations has been
+   * started. The body is expected to record its own operations through {@link #execute}.
+   */
+  public void run(int virtualUsers, int iterations, Iteration body) throws Exception {
+    AtomicInteger next = new AtomicInteger();
+    ExecutorService executor = Executors.newFixedThreadPool(virtualUsers);
+    startIntervalLog();
+    try {
+      List<Future<?>> users = new ArrayList<>();
+      for (int i = 0; i < virtualUsers; i++) {
+        users.add(executor.submit(() -> {
+          int iteration;
+          while ((iteration = next.getAndIncrement()) < iterations) {
+            body.run(iteration);
+          }
+          return null;
+        }));
+      }
+      for (Future<?> user : users) {
+        user.get();
+      }
+    } finally {
+      executor.shutdownNow();
+      stopIntervalLog();
+    }
+  }
+
+  /**
+   * Runs the scenario body back to back on every virtual user until the duration has elapsed.
+   * The body is expected to record its own operations through {@link #execute}.
+   */
+  public void runFor(int virtualUsers, Duration duration, Iteration body) throws Exception {
+    long deadline = System.nanoTime() + duration.toNanos();
+    AtomicInteger next = new AtomicInteger();
+    ExecutorService executor = Executors.newFixedThreadPool(virtualUsers);
+    startIntervalLog();
+    try {
+      List<Future<?>> users = new ArrayList<>();
+      for (int i = 0; i < virtualUsers; i++) {
+        users.add(executor.submit(() -> {
+          while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+            body.run(next.getAndIncrement());
+          }
+          return null;
+        }));
+      }
+      for (Future<?> user : users) {
+        user.get();
+      }
+    } finally {
+      executor.shutdownNow();
+      stopIntervalLog();
+    }
+  }
+
+  /**
+   * Starts iterations at a constant arrival rate for the given duration, on at most
+   * {@code maxConcurrency} threads. Latency of the first request in each iteration is measured
+   * from its scheduled start, so time spent queued behind a saturated system is counted instead of
+   * hidden (no coordinated omission).
+   *
+   * <p>Returns {@code false} when iterations were still running a grace period after the
+   * schedule ended, as happens once the target is overloaded. Iterations still running then are
+   * interrupted, so their requests fail and count as errors; iterations that never started are
+   * counted as errors under {@link #NOT_STARTED}.
+   */
+  public boolean runAtRate(double ratePerSecond, Duration duration, int maxConcurrency,
+      Iteration body) throws InterruptedException {
+    long intervalNanos = (long) (1_000_000_000L / ratePerSecond);
+    long start = System.nanoTime();
+    long end = start + duration.toNanos();
+    ExecutorService executor = Executors.newFixedThreadPool(maxConcurrency);
+    startIntervalLog();
+    try {
+      for (int iteration = 0; ; iteration++) {
+        long scheduled = start + iteration * intervalNanos;
+        if (scheduled >= end) {
+          break;
+        }
+        long wait = scheduled - System.nanoTime();
+        if (wait > 0) {
+          LockSupport.parkNanos(wait);
+        }
+        int current = iteration;
+        executor.execute(() -> {
+          intendedStart.set(scheduled);
+          try {
+            body.run(current);
+          } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+              Thread.currentThread().interrupt();
+            }
+          } finally {
+            intendedStart.remove();
+          }
+        });
+      }
+      executor.shutdown();
+      if (executor.awaitTermination(SHUTDOWN_GRACE_SECONDS, TimeUnit.SECONDS)) {
+        return true;
+      }
+      for (int i = executor.shutdownNow().size(); i > 0; i--) {
+        metrics.recordError(NOT_STARTED);
+      }
+      return false;
+    } finally {
+      executor.shutdownNow();
+      stopIntervalLog();
+    }
+  }
+
+  /**
+   * Marks the start of a named phase in the interval log of the run in progress, for example
+   * while another thread triggers a sync burst. Does nothing when no run is in progress.
+   */
+  public void markPhase(String phase) {
+    IntervalLog log = intervalLog;
+    if (log != null) {
+      log.markPhase(phase);
+    }
+  }
+
+  public boolean execute(String operationName, int iteration, Operation operation) {
+    Long scheduled = intendedStart.get();
+    intendedStart.remove();
+    long start = scheduled != null ? scheduled : System.nanoTime();
+    try {
+      HttpResponse<?> response = operation.call(iteration);
+      long latency = System.nanoTime() - start;
+      if (!succeeded(response.statusCode())) {
+        metrics.recordError(operationName);
+        return false;
+      }
+      metrics.recordSuccess(operationName, latency);
+      return true;
+    } catch (Exception e) {
+      if (e instanceof InterruptedException) {
+        Thread.currentThread().interrupt();
+      }
+      metrics.recordError(operationName);
+      return false;
+    }
+  }
+
+  // Only 2xx and 304 (a conditional read that matched) are timed; a redirect to a login page or
+  // any error status is counted as an error so its latency never passes for the real thing.
+  private static boolean succeeded(int status) {
+    return status / 100 == 2 || status == 304;
+  }
+
+  private void startIntervalLog() {
+    intervalLog = IntervalLog.start(metrics, name);
+  }
+
+  private void stopIntervalLog() {
+    IntervalLog log = intervalLog;
+    intervalLog = null;
+    if (log != null) {
+      log.close();
+    }
+  }
+}
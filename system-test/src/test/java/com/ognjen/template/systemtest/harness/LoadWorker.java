@@ -0,0 +1,90 @@
+package com.ognjen.template.systemtest.harness;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * One load-generating process of a distributed run. Connects to a {@link LoadCoordinator},
+ * prepares the scenario it is told to run, waits for the common start instant, runs it and sends
+ * back its raw histograms with its own success count per operation.
+ *
+ * <pre>
+ * java -cp ... com.ognjen.template.systemtest.harness.LoadWorker &lt;coordinator-host&gt; &lt;port&gt; [name]
+ * </pre>
+ */
+public class LoadWorker {
+
+  private final String name;
+
+  public LoadWorker(String name) {
+    this.name = name;
+  }
+
+  public static void main(String[] args) throws Exception {
+    if (args.length < 2) {
+      System.err.println("Usage: LoadWorker <coordinator-host> <port> [name]");
+      System.exit(2);
+    }
+    String name = args.length > 2 ? args[2] : "worker-"
+        + InetAddress.getLocalHost().getHostName() + "-" + ProcessHandle.current().pid();
+    new LoadWorker(name).run(args[0], Integer.parseInt(args[1]));
+  }
+
+  public void run(String host, int port) throws Exception {
+    try (Socket socket = new Socket(host, port);
+        BufferedReader in = new BufferedReader(
+            new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        PrintWriter out = new PrintWriter(socket.getOutputStream(), true,
+            StandardCharsets.UTF_8)) {
+
+      out.println(LoadCoordinator.HELLO + " " + name);
+
+      String[] prepare = expect(in, LoadCoordinator.PREPARE).split(" ");
+      Scenario scenario = Scenarios.named(prepare[1]);
+      int virtualUsers = Integer.parseInt(prepare[2]);
+      Duration duration = Duration.ofMillis(Long.parseLong(prepare[3]));
+
+      BudgetOkClient api = new BudgetOkClient();
+      OperationMetrics metrics = new OperationMetrics();
+      LoadRunner runner = new LoadRunner(metrics, name);
+      try {
+        scenario.prepare(api);
+      } catch (Exception e) {
+        out.println(LoadCoordinator.FAILED + " " + e);
+        return;
+      }
+      out.println(LoadCoordinator.READY);
+
+      long startAtMillis = Long.parseLong(
+          expect(in, LoadCoordinator.START).substring(LoadCoordinator.START.length()).trim());
+      Thread.sleep(Math.max(0, startAtMillis - System.currentTimeMillis()));
+      out.println(LoadCoordinator.STARTED + " " + System.currentTimeMillis());
+      runner.runFor(virtualUsers, duration,
+          iteration -> scenario.iteration(api, runner, iteration));
+
+      for (String operation : metrics.operations()) {
+        out.println(LoadCoordinator.RESULT
+            + " " + URLEncoder.encode(operation, StandardCharsets.UTF_8)
+            + " " + metrics.successCount(operation)
+            + " " + metrics.errorCount(operation)
+            + " " + metrics.bytes(operation)
+            + " " + HistogramCodec.encode(metrics.latency(operation)));
+      }
+      out.println(LoadCoordinator.DONE);
+    }
+  }
+
+  private static String expect(BufferedReader in, String command) throws Exception {
+    String line = in.readLine();
+    if (line == null || !line.startsWith(command)) {
+      throw new IllegalStateException("Expected " + command + " from coordinator but got: " + line);
+    }
+    return line;
+  }
+}
@@ -0,0 +1,129 @@
+package com.ognjen.template.systemtest.harness;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Per-operation latency histograms (in microseconds) and error counters. Safe to record into from
+ * many virtual users at once.
+ */
+public class OperationMetrics {
+
+  /** Sees every sample as it is recorded, for example to cut it into per-second intervals. */
+  public interface Listener {
+
+    void onSuccess(String operation, long latencyMicros);
+
+    void onError(String operation);
+  }
+
+  private static final int SIGNIFICANT_DIGITS = 3;
+
+  private final Map<String, Histogram> latencies = new ConcurrentHashMap<>();
+  private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+  private final Map<String, LongAdder> bytes = new ConcurrentHashMap<>();
+  private final AtomicReference<Listener> listener = new AtomicReference<>();
+
+  public void recordSuccess(String operation, long latencyNanos) {
+    long micros = Math.max(1, latencyNanos / 1_000);
+    latencies.computeIfAbsent(operation, key -> new ConcurrentHistogram(SIGNIFICANT_DIGITS))
+        .recordValue(micros);
+    Listener current = listener.get();
+    if (current != null) {
+      current.onSuccess(operation, micros);
+    }
+  }
+
+  public void recordError(String operation) {
+    errors.computeIfAbsent(operation, key -> new LongAdder()).increment();
+    Listener current = listener.get();
+    if (current != null) {
+      current.onError(operation);
+    }
+  }
+
+  /** Attaches a listener unless another one is attached already; returns whether it was. */
+  public boolean attach(Listener newListener) {
+    return listener.compareAndSet(null, newListener);
+  }
+
+  public void detach(Listener oldListener) {
+    listener.compareAndSet(oldListener, null);
+  }
+
+  public void recordBytes(String operation, long count) {
+    bytes.computeIfAbsent(operation, key -> new LongAdder()).add(count);
+  }
+
+  public Histogram latency(String operation) {
+    Histogram histogram = latencies.get(operation);
+    return histogram != null ? histogram.copy() : new Histogram(SIGNIFICANT_DIGITS);
+  }
+
+  public long successCount(String operation) {
+    Histogram histogram = latencies.get(operation);
+    return histogram != null ? histogram.getTotalCount() : 0;
+  }
+
+  public long errorCount(String operation) {
+    LongAdder counter = errors.get(operation);
+    return counter != null ? counter.sum() : 0;
+  }
+
+  public long bytes(String operation) {
+    LongAdder counter = bytes.get(operation);
+    return counter != null ? counter.sum() : 0;
+  }
+
+  public Set<String> operations() {
+    Set<String> operations = new TreeSet<>(latencies.keySet());
+    operations.addAll(errors.keySet());
+    operations.addAll(bytes.keySet());
+    return operations;
+  }
+
+  /**
+   * Adds another set of results into this one, for example a worker's results into the merged
+   * report. Histograms are added bucket by bucket, so percentiles of the merge are exact.
+   */
+  public void merge(String operation, Histogram latency, long errorCount, long byteCount) {
+    if (latency.getTotalCount() > 0) {
+      latencies.computeIfAbsent(operation, key -> new ConcurrentHistogram(SIGNIFICANT_DIGITS))
+          .add(latency);
+    }
+    if (errorCount > 0) {
+      errors.computeIfAbsent(operation, key -> new LongAdder()).add(errorCount);
+    }
+    if (byteCount > 0) {
+      recordBytes(operation, byteCount);
+    }
+  }
+
+  public void mergeAll(OperationMetrics other) {
+    for (String operation : other.operations()) {
+      merge(operation, other.latency(operation), other.errorCount(operation),
+          other.bytes(operation));
+    }
+  }
+
+  public Map<String, Histogram> snapshot() {
+    Map<String, Histogram> snapshot = new TreeMap<>();
+    latencies.forEach((operation, histogram) -> snapshot.put(operation, histogram.copy()));
+    errors.keySet().forEach(operation -> snapshot.putIfAbsent(operation,
+        new Histogram(SIGNIFICANT_DIGITS)));
+    return snapshot;
+  }
+
+  public void reset() {
+    latencies.clear();
+    errors.clear();
+    bytes.clear();
+  }
+}
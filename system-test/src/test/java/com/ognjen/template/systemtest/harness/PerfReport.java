@@ -0,0 +1,125 @@
+package com.ognjen.template.systemtest.harness;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import org.HdrHistogram.Histogram;
+
+/**
+ * A simple result table that is printed to the console and saved as CSV under
+ * {@code target/perf-results}.
+ */
+public class PerfReport {
+
+  public static final Path RESULTS_DIR = Path.of(
+      System.getProperty("perf.results.dir", "target/perf-results"));
+
+  private final String title;
+  private final List<String> headers;
+  private final List<List<String>> rows = new ArrayList<>();
+
+  public PerfReport(String title, String... headers) {
+    this.title = title;
+    this.headers = List.of(headers);
+  }
+
+  /**
+   * Throughput and latency percentiles per operation, plus a total row.
+   */
+  public static PerfReport latencies(String title, OperationMetrics metrics, Duration elapsed) {
+    PerfReport report = new PerfReport(title, "operation", "ok", "errors", "throughput_rps",
+        "p50_us", "p90_us", "p99_us", "p999_us", "max_us");
+    double seconds = Math.max(elapsed.toNanos(), 1) / 1_000_000_000.0;
+    Histogram total = new Histogram(3);
+    long totalErrors = 0;
+    for (String operation : metrics.operations()) {
+      Histogram latency = metrics.latency(operation);
+      total.add(latency);
+      totalErrors += metrics.errorCount(operation);
+      report.latencyRow(operation, latency, metrics.errorCount(operation), seconds);
+    }
+    report.latencyRow("total", total, totalErrors, seconds);
+    return report;
+  }
+
+  private void latencyRow(String operation, Histogram latency, long errors, double seconds) {
+    row(operation, latency.getTotalCount(), errors, latency.getTotalCount() / seconds,
+        latency.getValueAtPercentile(50), latency.getValueAtPercentile(90),
+        latency.getValueAtPercentile(99), latency.getValueAtPercentile(99.9),
+        latency.getMaxValue());
+  }
+
+  public PerfReport row(Object... values) {
+    if (values.length != headers.size()) {
+      throw new IllegalArgumentException("Expected " + headers.size() + " values but got "
+          + values.length);
+    }
+    rows.add(Arrays.stream(values).map(PerfReport::format).toList());
+    return this;
+  }
+
+  public List<List<String>> rows() {
+    return rows;
+  }
+
+  public String render() {
+    int[] widths = new int[headers.size()];
+    for (int i = 0; i < headers.size(); i++) {
+      widths[i] = headers.get(i).length();
+      for (List<String> row : rows) {
+        widths[i] = Math.max(widths[i], row.get(i).length());
+      }
+    }
+
+    StringBuilder out = new StringBuilder();
+    out.append("== ").append(title).append(" ==").append(System.lineSeparator());
+    appendLine(out, headers, widths);
+    for (List<String> row : rows) {
+      appendLine(out, row, widths);
+    }
+    return out.toString();
+  }
+
+  public void print() {
+    System.out.println(render());
+  }
+
+  public Path writeCsv(String fileName) {
+    StringBuilder csv = new StringBuilder(String.join(",", headers)).append('\n');
+    for (List<String> row : rows) {
+      csv.append(String.join(",", row)).append('\n');
+    }
+    return write(fileName, csv.toString());
+  }
+
+  public static Path write(String fileName, String content) {
+    try {
+      Files.createDirectories(RESULTS_DIR);
+      Path file = RESULTS_DIR.resolve(fileName);
+      Files.writeString(file, content);
+      return file;
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not write " + fileName, e);
+    }
+  }
+
+  private static void appendLine(StringBuilder out, List<String> cells, int[] widths) {
+    for (int i = 0; i < cells.size(); i++) {
+      out.append(String.format("%-" + widths[i] + "s", cells.get(i)));
+      out.append(i < cells.size() - 1 ? "  " : System.lineSeparator());
+    }
+  }
+
+  private static String format(Object value) {
+    if (value instanceof Double || value instanceof Float) {
+      return String.format(Locale.ROOT, "%.3f", ((Number) value).doubleValue());
+    }
+    return String.valueOf(value);
+  }
+}
@@ -0,0 +1,182 @@
+package com.ognjen.template.systemtest.harness;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Builds fixtures once and restores them in milliseconds using Postgres template databases.
+ *
+ * <p>A fixture is stored as database {@code fixture_<name>} inside the {@code db} container, so it
+ * survives between runs in the {@code postgres_data} volume. Restoring drops the application
+ * database and recreates it from the template; the backend's connection pool reconnects on the
+ * next request.
+ *
+ * <p>Each template is stamped (as its database comment) with a fingerprint of the schema it was
+ * built from: the column layout of the {@code public} schema plus the applied Flyway migrations.
+ * When the running backend has migrated the application database to anything else, the templates
+ * are rebuilt before they are restored. Run with {@code -Dfixtures.rebuild=true} after changing
+ * what a fixture seeds.
+ */
+public class PostgresFixtures {
+
+  private static final String DB_SERVICE = "db";
+  private static final String EMPTY_TEMPLATE = "fixture_" + Fixtures.EMPTY;
+  private static final Duration BACKEND_READY_TIMEOUT = Duration.ofSeconds(30);
+
+  private static final PostgresFixtures shared = new PostgresFixtures();
+
+  private final DockerCompose docker;
+  private final BudgetOkClient api;
+  private final String database;
+  private final String user;
+  private final boolean rebuild;
+  private final Set<String> checked = ConcurrentHashMap.newKeySet();
+  private String schemaFingerprint;
+
+  public PostgresFixtures() {
+    this(new DockerCompose(), new BudgetOkClient(),
+        System.getProperty("fixtures.database", "budgetok"),
+        System.getProperty("fixtures.user", "postgres"),
+        Boolean.getBoolean("fixtures.rebuild"));
+  }
+
+  public PostgresFixtures(DockerCompose docker, BudgetOkClient api, String database, String user,
+      boolean rebuild) {
+    this.docker = docker;
+    this.api = api;
+    this.database = database;
+    this.user = user;
+    this.rebuild = rebuild;
+  }
+
+  public static PostgresFixtures shared() {
+    return shared;
+  }
+
+  /**
+   * Makes the application database an exact copy of the fixture, building the fixture first if it
+   * does not exist yet. Returns the time the restore itself took, in milliseconds.
+   */
+  public synchronized long restore(Fixture fixture) throws Exception {
+    ensureBuilt(fixture);
+    long start = System.nanoTime();
+    recreateFrom(templateName(fixture));
+    long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+    SessionPool.forgetShared();
+    awaitBackend();
+    return elapsedMillis;
+  }
+
+  public synchronized void ensureBuilt(Fixture fixture) throws Exception {
+    String template = templateName(fixture);
+    if (checked.contains(template)) {
+      return;
+    }
+    String fingerprint = schemaFingerprint();
+    if (rebuild || !exists(template) || !fingerprint.equals(fingerprintOf(template))) {
+      build(fixture);
+    }
+    checked.add(template);
+  }
+
+  private void build(Fixture fixture) throws Exception {
+    String template = templateName(fixture);
+    if (template.equals(EMPTY_TEMPLATE)) {
+      buildEmpty();
+      return;
+    }
+    ensureBuilt(Fixtures.named(Fixtures.EMPTY));
+    recreateFrom(EMPTY_TEMPLATE);
+    awaitBackend();
+    fixture.seeder().seed(api);
+    snapshot(template);
+    stamp(template);
+  }
+
+  // The empty fixture is the current schema with every table truncated, so it follows whatever
+  // migrations the running backend has applied.
+  private void buildEmpty() {
+    snapshot(EMPTY_TEMPLATE);
+    psql(EMPTY_TEMPLATE, """
+        DO $$
+        DECLARE tables text;
+        BEGIN
+          SELECT string_agg(format('%I.%I', schemaname, tablename), ', ') INTO tables
+          FROM pg_tables
+          WHERE schemaname = 'public'
+            AND tablename NOT IN ('flyway_schema_history', 'databasechangelog', 'databasechangeloglock');
+          IF tables IS NOT NULL THEN
+            EXECUTE 'TRUNCATE ' || tables || ' RESTART IDENTITY CASCADE';
+          END IF;
+        END $$;
+        """);
+    stamp(EMPTY_TEMPLATE);
+  }
+
+  // Read once per run, before the first restore replaces the application database with a copy
+  // of a template and with it the schema the backend migrated to.
+  private String schemaFingerprint() {
+    if (schemaFingerprint == null) {
+      String columns = psql(database, """
+          SELECT md5(coalesce(string_agg(table_name || '.' || column_name || ' ' || data_type, ','
+              ORDER BY table_name, ordinal_position), ''))
+          FROM information_schema.columns
+          WHERE table_schema = 'public'
+          """).trim();
+      String migrations = psql(database,
+          "SELECT to_regclass('public.flyway_schema_history') IS NOT NULL").trim().equals("t")
+          ? psql(database, "SELECT coalesce(max(installed_rank), 0) || '-'"
+              + " || coalesce(sum(checksum::bigint), 0) FROM flyway_schema_history WHERE success")
+              .trim()
+          : "none";
+      schemaFingerprint = columns + "/" + migrations;
+    }
+    return schemaFingerprint;
+  }
+
+  private void stamp(String template) {
+    psql("postgres", "COMMENT ON DATABASE " + template + " IS '" + schemaFingerprint() + "'");
+  }
+
+  private String fingerprintOf(String template) {
+    return psql("postgres", "SELECT coalesce(shobj_description(oid, 'pg_database'), '')"
+        + " FROM pg_database WHERE datname = '" + template + "'").trim();
+  }
+
+  private void snapshot(String template) {
+    psql("postgres", "DROP DATABASE IF EXISTS " + template);
+    psql("postgres", "ALTER DATABASE " + database + " WITH ALLOW_CONNECTIONS false");
+    try {
+      psql("postgres", "SELECT pg_terminate_backend(pid) FROM pg_stat_activity"
+          + " WHERE datname = '" + database + "' AND pid <> pg_backend_pid()");
+      psql("postgres", "CREATE DATABASE " + template + " TEMPLATE " + database);
+    } finally {
+      psql("postgres", "ALTER DATABASE " + database + " WITH ALLOW_CONNECTIONS true");
+    }
+  }
+
+  private void recreateFrom(String template) {
+    psql("postgres", "DROP DATABASE IF EXISTS " + database + " WITH (FORCE)");
+    psql("postgres", "CREATE DATABASE " + database + " TEMPLATE " + template);
+  }
+
+  private boolean exists(String template) {
+    return psql("postgres", "SELECT 1 FROM pg_database WHERE datname = '" + template + "'")
+        .trim().equals("1");
+  }
+
+  // The first requests after a restore may hit pooled connections to the dropped database.
+  private void awaitBackend() throws InterruptedException {
+    api.awaitReady(BACKEND_READY_TIMEOUT);
+  }
+
+  private String psql(String targetDatabase, String sql) {
+    return docker.execCommand(DB_SERVICE, "psql", "-U", user, "-d", targetDatabase,
+        "-v", "ON_ERROR_STOP=1", "-qAt", "-c", sql);
+  }
+
+  private static String templateName(Fixture fixture) {
+    return "fixture_" + fixture.name();
+  }
+}
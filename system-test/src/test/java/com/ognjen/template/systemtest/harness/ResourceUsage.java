@@ -0,0 +1,31 @@
+package com.ognjen.template.systemtest.harness;
+
+/**
+ * CPU and memory consumed by one container over a sampling window.
+ */
+public record ResourceUsage(String service, long cpuMicros, long elapsedNanos,
+                            long memoryStartBytes, long memoryEndBytes, long memoryPeakBytes) {
+
+  public double cpuMillis() {
+    return cpuMicros / 1_000.0;
+  }
+
+  public double cpuMicrosPerSecond() {
+    return elapsedNanos > 0 ? cpuMicros * 1_000_000_000.0 / elapsedNanos : 0;
+  }
+
+  public long memoryGrowthBytes() {
+    return memoryEndBytes - memoryStartBytes;
+  }
+
+  /**
+   * CPU milliseconds spent per operation once the container's idle burn rate is taken out.
+   */
+  public double cpuMillisPerOperation(long operations, double idleCpuMicrosPerSecond) {
+    if (operations <= 0) {
+      return 0;
+    }
+    double idleMicros = idleCpuMicrosPerSecond * elapsedNanos / 1_000_000_000.0;
+    return Math.max(0, cpuMicros - idleMicros) / 1_000.0 / operations;
+  }
+}
@@ -0,0 +1,16 @@
+package com.ognjen.template.systemtest.harness;
+
+/**
+ * A load profile that can be run in-process or, by name, on every worker of a distributed run.
+ * {@link #prepare} creates whatever the scenario needs and runs before the synchronized start;
+ * {@link #iteration} issues the requests for one iteration of one virtual user.
+ */
+public interface Scenario {
+
+  String name();
+
+  default void prepare(BudgetOkClient api) throws Exception {
+  }
+
+  void iteration(BudgetOkClient api, LoadRunner runner, int iteration) throws Exception;
+}
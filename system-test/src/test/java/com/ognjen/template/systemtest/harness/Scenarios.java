@@ -0,0 +1,84 @@
+package com.ognjen.template.systemtest.harness;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The scenarios workers can be asked to run by name. With {@code perf.auth.enabled=true} every
+ * scenario runs as a pool of logged-in users (see {@link AuthenticatedScenario}).
+ */
+public final class Scenarios {
+
+  /** 70% envelope reads, 20% expense posts and 10% transfers over a small set of envelopes. */
+  public static final String ENVELOPE_MIX = "envelope-mix";
+
+  /** Reads of single envelopes only. */
+  public static final String ENVELOPE_READS = "envelope-reads";
+
+  /** Expense posts only. */
+  public static final String EXPENSE_WRITES = "expense-writes";
+
+  private static final int ENVELOPES_PER_WORKER = 10;
+
+  private Scenarios() {
+  }
+
+  public static Scenario named(String name) {
+    Scenario scenario = anonymous(name);
+    AuthSettings auth = AuthSettings.fromSystemProperties();
+    return auth.enabled() ? new AuthenticatedScenario(() -> anonymous(name), auth) : scenario;
+  }
+
+  private static Scenario anonymous(String name) {
+    return switch (name) {
+      case ENVELOPE_MIX -> new EnvelopeMix(ENVELOPE_MIX, 7, 2, 1);
+      case ENVELOPE_READS -> new EnvelopeMix(ENVELOPE_READS, 1, 0, 0);
+      case EXPENSE_WRITES -> new EnvelopeMix(EXPENSE_WRITES, 0, 1, 0);
+      default -> throw new IllegalArgumentException("Unknown scenario: " + name);
+    };
+  }
+
+  private static final class EnvelopeMix implements Scenario {
+
+    private final String name;
+    private final int reads;
+    private final int expenses;
+    private final int transfers;
+    private final List<Long> envelopeIds = new ArrayList<>();
+
+    private EnvelopeMix(String name, int reads, int expenses, int transfers) {
+      this.name = name;
+      this.reads = reads;
+      this.expenses = expenses;
+      this.transfers = transfers;
+    }
+
+    @Override
+    public String name() {
+      return name;
+    }
+
+    @Override
+    public void prepare(BudgetOkClient api) throws Exception {
+      for (int i = 0; i < ENVELOPES_PER_WORKER; i++) {
+        envelopeIds.add(api.createEnvelopeId("Load " + name + " " + i, 1_000_000_000));
+      }
+    }
+
+    @Override
+    public void iteration(BudgetOkClient api, LoadRunner runner, int iteration) {
+      long envelopeId = envelopeIds.get(iteration % envelopeIds.size());
+      int slot = iteration % (reads + expenses + transfers);
+      if (slot < reads) {
+        runner.execute("get-envelope", iteration, i -> api.getEnvelope(envelopeId));
+      } else if (slot < reads + expenses) {
+        runner.execute("add-expense", iteration,
+            i -> api.addExpense(envelopeId, 1, "Load " + i, "WITHDRAW"));
+      } else {
+        long targetId = envelopeIds.get((iteration + 1) % envelopeIds.size());
+        runner.execute("transfer", iteration,
+            i -> api.transfer(envelopeId, targetId, 1, "Load " + i));
+      }
+    }
+  }
+}
@@ -0,0 +1,168 @@
+package com.ognjen.template.systemtest.harness;
+
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A set of registered, logged-in users, each wrapped in a {@link BudgetOkClient} that sends the
+ * user's token and logs in again when the backend answers 401. Iterations pick a session
+ * round-robin, so load is spread over all users.
+ *
+ * <p>Provisioning thousands of users takes a while, so perf tests share one pool per JVM and set
+ * of {@link AuthSettings} through {@link #shared}. Restoring a fixture wipes the users along with
+ * everything else, so {@link PostgresFixtures} drops the shared pools and the next caller
+ * provisions a new one.
+ */
+public class SessionPool {
+
+  public static final String REGISTER = "register";
+  public static final String LOGIN = "login";
+
+  private static final int PROVISIONING_USERS = 16;
+  private static final Map<AuthSettings, SessionPool> shared = new ConcurrentHashMap<>();
+
+  private final AuthSettings settings;
+  private final String[] usernames;
+  private final BudgetOkClient[] sessions;
+  private final OperationMetrics provisioning;
+  private final Duration provisioningTime;
+  private final LongAdder relogins = new LongAdder();
+
+  private SessionPool(AuthSettings settings, String[] usernames, BudgetOkClient[] sessions,
+      OperationMetrics provisioning, Duration provisioningTime) {
+    this.settings = settings;
+    this.usernames = usernames;
+    this.sessions = sessions;
+    this.provisioning = provisioning;
+    this.provisioningTime = provisioningTime;
+  }
+
+  /** The pool for these settings, provisioned on first use and kept until the next restore. */
+  public static synchronized SessionPool shared(AuthSettings settings) throws Exception {
+    SessionPool pool = shared.get(settings);
+    if (pool == null) {
+      pool = provision(new BudgetOkClient(), settings, new OperationMetrics());
+      shared.put(settings, pool);
+    }
+    return pool;
+  }
+
+  static synchronized void forgetShared() {
+    shared.clear();
+  }
+
+  /**
+   * The client a test that acts as a single user should send its requests with: {@code api}
+   * itself when {@code perf.auth.enabled} is off, otherwise {@code api} logged in as the first
+   * user of the shared pool.
+   */
+  public static BudgetOkClient asUser(BudgetOkClient api) throws Exception {
+    AuthSettings settings = AuthSettings.fromSystemProperties();
+    return settings.enabled() ? shared(settings).session(api, 0) : api;
+  }
+
+  /**
+   * Registers and logs in {@code settings.users()} fresh users, recording both calls into the
+   * given metrics under {@link #REGISTER} and {@link #LOGIN}.
+   */
+  public static SessionPool provision(BudgetOkClient api, AuthSettings settings,
+      OperationMetrics metrics) throws Exception {
+    String run = Long.toString(System.currentTimeMillis(), 36);
+    String[] usernames = new String[settings.users()];
+    AtomicReferenceArray<String> tokens = new AtomicReferenceArray<>(settings.users());
+    LoadRunner runner = new LoadRunner(metrics, "session-provisioning");
+
+    long start = System.nanoTime();
+    runner.run(PROVISIONING_USERS, settings.users(), iteration -> {
+      String username = "perf-" + run + "-" + iteration;
+      usernames[iteration] = username;
+      if (!runner.execute(REGISTER, iteration,
+          i -> api.register(settings.registerPath(), username, settings.password()))) {
+        return;
+      }
+
+      AtomicReference<HttpResponse<String>> login = new AtomicReference<>();
+      if (!runner.execute(LOGIN, iteration, i -> {
+        login.set(api.login(settings.loginPath(), username, settings.password()));
+        return login.get();
+      })) {
+        return;
+      }
+      tokens.set(iteration, BudgetOkClient.extractString(login.get().body(),
+          settings.tokenField()));
+    });
+    Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+    int loggedIn = 0;
+    for (int i = 0; i < settings.users(); i++) {
+      loggedIn += tokens.get(i) != null ? 1 : 0;
+    }
+    if (loggedIn < settings.users()) {
+      throw new IllegalStateException("Only " + loggedIn + " of " + settings.users()
+          + " users could log in (token field: " + settings.tokenField() + ")");
+    }
+
+    BudgetOkClient[] sessions = new BudgetOkClient[settings.users()];
+    SessionPool pool = new SessionPool(settings, usernames, sessions, metrics, elapsed);
+    for (int i = 0; i < sessions.length; i++) {
+      sessions[i] = api.withToken(tokens.get(i), pool.relogin(api, usernames[i]));
+    }
+    return pool;
+  }
+
+  public BudgetOkClient client(int iteration) {
+    return sessions[index(iteration)];
+  }
+
+  /** The session {@link #client} picks for this iteration. */
+  public int index(int iteration) {
+    return Math.floorMod(iteration, sessions.length);
+  }
+
+  public int size() {
+    return sessions.length;
+  }
+
+  /** Register and login latencies recorded while the pool was provisioned. */
+  public OperationMetrics provisioning() {
+    return provisioning;
+  }
+
+  public Duration provisioningTime() {
+    return provisioningTime;
+  }
+
+  /** How many times a session had to log in again after its token was rejected. */
+  public long relogins() {
+    return relogins.sum();
+  }
+
+  private BudgetOkClient session(BudgetOkClient api, int index) throws Exception {
+    BudgetOkClient.Login login = relogin(api, usernames[index]);
+    return api.withToken(token(api, usernames[index]), login);
+  }
+
+  private BudgetOkClient.Login relogin(BudgetOkClient api, String username) {
+    return () -> {
+      relogins.increment();
+      return token(api, username);
+    };
+  }
+
+  private String token(BudgetOkClient api, String username) throws Exception {
+    HttpResponse<String> response = api.login(settings.loginPath(), username,
+        settings.password());
+    String token = response.statusCode() == 200
+        ? BudgetOkClient.extractString(response.body(), settings.tokenField()) : null;
+    if (token == null) {
+      throw new IllegalStateException("Could not log in as " + username + ": "
+          + response.statusCode() + " - " + response.body());
+    }
+    return token;
+  }
+}
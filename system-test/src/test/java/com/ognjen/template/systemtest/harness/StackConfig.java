@@ -0,0 +1,140 @@
+package com.ognjen.template.systemtest.harness;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * One combination of backend and database settings. Every value is optional; a {@code null}
+ * keeps what {@code docker-compose.yml} and the images use by default. {@link #overrideYaml}
+ * renders the combination as a compose override file.
+ *
+ * @param heap backend heap size for {@code -Xms}/{@code -Xmx}, for example {@code 512m}
+ * @param gc backend collector name as in {@code -XX:+Use<gc>GC}, for example {@code G1}
+ * @param poolSize Hikari maximum pool size of the backend
+ * @param sharedBuffers Postgres {@code shared_buffers}, for example {@code 256MB}
+ * @param workMem Postgres {@code work_mem}, for example {@code 16MB}
+ * @param backendCpus CPU limit of the backend container, for example {@code 1.5}
+ * @param dbCpus CPU limit of the db container
+ */
+public record StackConfig(String heap, String gc, String poolSize, String sharedBuffers,
+                          String workMem, String backendCpus, String dbCpus) {
+
+  /** Dimension names, as used in {@code perf.sweep.<dimension>} and in {@link #name}. */
+  public static final List<String> DIMENSIONS = List.of("heap", "gc", "poolSize",
+      "sharedBuffers", "workMem", "backendCpus", "dbCpus");
+
+  public static final StackConfig DEFAULTS = new StackConfig(null, null, null, null, null, null,
+      null);
+
+  /**
+   * Every combination of the given values, varying the last dimension fastest. Dimensions that
+   * are missing or empty keep their default.
+   */
+  public static List<StackConfig> matrix(Map<String, List<String>> values) {
+    List<Map<String, String>> combinations = new ArrayList<>();
+    combinations.add(new LinkedHashMap<>());
+    for (String dimension : DIMENSIONS) {
+      List<String> options = values.getOrDefault(dimension, List.of());
+      if (options.isEmpty()) {
+        continue;
+      }
+      List<Map<String, String>> expanded = new ArrayList<>();
+      for (Map<String, String> combination : combinations) {
+        for (String option : options) {
+          Map<String, String> next = new LinkedHashMap<>(combination);
+          next.put(dimension, option);
+          expanded.add(next);
+        }
+      }
+      combinations = expanded;
+    }
+    return combinations.stream().map(StackConfig::of).toList();
+  }
+
+  /** The matrix described by {@code perf.sweep.<dimension>=value,value,...} properties. */
+  public static List<StackConfig> matrixFromSystemProperties() {
+    Map<String, List<String>> values = new LinkedHashMap<>();
+    for (String dimension : DIMENSIONS) {
+      String property = System.getProperty("perf.sweep." + dimension, "");
+      List<String> options = List.of(property.split(",")).stream()
+          .map(String::trim)
+          .filter(option -> !option.isEmpty())
+          .toList();
+      values.put(dimension, options);
+    }
+    return matrix(values);
+  }
+
+  private static StackConfig of(Map<String, String> values) {
+    return new StackConfig(values.get("heap"), values.get("gc"), values.get("poolSize"),
+        values.get("sharedBuffers"), values.get("workMem"), values.get("backendCpus"),
+        values.get("dbCpus"));
+  }
+
+  public String name() {
+    StringJoiner name = new StringJoiner(" ");
+    List<String> settings = settings();
+    for (int i = 0; i < DIMENSIONS.size(); i++) {
+      if (settings.get(i) != null) {
+        name.add(DIMENSIONS.get(i) + "=" + settings.get(i));
+      }
+    }
+    return name.length() > 0 ? name.toString() : "defaults";
+  }
+
+  /** Compose override for this combination; services without a setting are left out. */
+  public String overrideYaml() {
+    StringBuilder backend = new StringBuilder();
+    if (backendCpus != null) {
+      backend.append("    cpus: \"").append(backendCpus).append("\"\n");
+    }
+    List<String> jvmOptions = new ArrayList<>();
+    if (heap != null) {
+      jvmOptions.add("-Xms" + heap);
+      jvmOptions.add("-Xmx" + heap);
+    }
+    if (gc != null) {
+      jvmOptions.add("-XX:+Use" + gc + "GC");
+    }
+    if (!jvmOptions.isEmpty() || poolSize != null) {
+      backend.append("    environment:\n");
+    }
+    if (!jvmOptions.isEmpty()) {
+      backend.append("      JAVA_TOOL_OPTIONS: \"").append(String.join(" ", jvmOptions))
+          .append("\"\n");
+    }
+    if (poolSize != null) {
+      backend.append("      SPRING_DATASOURCE_HIKARI_MAXIMUM_POOL_SIZE: \"").append(poolSize)
+          .append("\"\n");
+    }
+
+    StringBuilder db = new StringBuilder();
+    if (dbCpus != null) {
+      db.append("    cpus: \"").append(dbCpus).append("\"\n");
+    }
+    List<String> command = new ArrayList<>(List.of("\"postgres\""));
+    if (sharedBuffers != null) {
+      command.add("\"-c\", \"shared_buffers=" + sharedBuffers + "\"");
+    }
+    if (workMem != null) {
+      command.add("\"-c\", \"work_mem=" + workMem + "\"");
+    }
+    db.append("    command: [").append(String.join(", ", command)).append("]\n");
+
+    StringBuilder yaml = new StringBuilder("services:\n");
+    if (!backend.isEmpty()) {
+      yaml.append("  backend:\n").append(backend);
+    }
+    yaml.append("  db:\n").append(db);
+    return yaml.toString();
+  }
+
+  private List<String> settings() {
+    return Arrays.asList(heap, gc, poolSize, sharedBuffers, workMem, backendCpus,
+        dbCpus);
+  }
+}
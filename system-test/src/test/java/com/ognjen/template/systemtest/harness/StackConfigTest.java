@@ -0,0 +1,51 @@
+package com.ognjen.template.systemtest.harness;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StackConfigTest {
+
+  @Test
+  void givenSeveralDimensions_whenExpandingMatrix_thenEveryCombinationIsProduced() {
+    List<StackConfig> configs = StackConfig.matrix(Map.of(
+        "heap", List.of("256m", "1g"),
+        "poolSize", List.of("10", "20", "40"),
+        "workMem", List.of()));
+
+    assertEquals(6, configs.size());
+    assertEquals("heap=256m poolSize=10", configs.get(0).name());
+    assertEquals("heap=1g poolSize=40", configs.get(5).name());
+  }
+
+  @Test
+  void givenNoDimensions_whenExpandingMatrix_thenOnlyDefaultsRun() {
+    assertEquals(List.of(StackConfig.DEFAULTS), StackConfig.matrix(Map.of()));
+    assertEquals("defaults", StackConfig.DEFAULTS.name());
+  }
+
+  @Test
+  void givenSettings_whenRenderingOverride_thenBackendAndDbAreConfigured() {
+    StackConfig config = new StackConfig("512m", "Parallel", "30", "256MB", "16MB", "2", null);
+
+    String yaml = config.overrideYaml();
+
+    assertTrue(yaml.contains("    cpus: \"2\"\n"));
+    assertTrue(yaml.contains("JAVA_TOOL_OPTIONS: \"-Xms512m -Xmx512m -XX:+UseParallelGC\""));
+    assertTrue(yaml.contains("SPRING_DATASOURCE_HIKARI_MAXIMUM_POOL_SIZE: \"30\""));
+    assertTrue(yaml.contains(
+        "command: [\"postgres\", \"-c\", \"shared_buffers=256MB\", \"-c\", \"work_mem=16MB\"]"));
+  }
+
+  @Test
+  void givenDefaults_whenRenderingOverride_thenBackendIsLeftAlone() {
+    String yaml = StackConfig.DEFAULTS.overrideYaml();
+
+    assertFalse(yaml.contains("backend:"));
+    assertTrue(yaml.contains("command: [\"postgres\"]"));
+  }
+}
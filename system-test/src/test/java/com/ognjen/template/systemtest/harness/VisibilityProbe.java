@@ -0,0 +1,82 @@
+package com.ognjen.template.systemtest.harness;
+
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Measures how long a write takes to become visible to readers. After the write is acknowledged
+ * the probe keeps reading until the change shows up; the recorded staleness window runs from the
+ * acknowledgement to the start of the first read that saw the change, so it is close to zero when
+ * the backend has read-your-writes consistency.
+ */
+public class VisibilityProbe {
+
+  @FunctionalInterface
+  public interface Write {
+
+    HttpResponse<String> perform(int attempt) throws Exception;
+  }
+
+  @FunctionalInterface
+  public interface Check {
+
+    boolean isVisible(int attempt) throws Exception;
+  }
+
+  private final Duration pollInterval;
+  private final Duration timeout;
+  private final Map<String, Histogram> windows = new ConcurrentHashMap<>();
+  private final Map<String, LongAdder> staleReads = new ConcurrentHashMap<>();
+  private final Map<String, LongAdder> timeouts = new ConcurrentHashMap<>();
+
+  public VisibilityProbe(Duration pollInterval, Duration timeout) {
+    this.pollInterval = pollInterval;
+    this.timeout = timeout;
+  }
+
+  public void probe(String name, int attempt, Write write, Check check) throws Exception {
+    HttpResponse<String> response = write.perform(attempt);
+    long acknowledged = System.nanoTime();
+    if (response.statusCode() >= 400) {
+      throw new IllegalStateException(name + " write failed with " + response.statusCode()
+          + ": " + response.body());
+    }
+
+    long deadline = acknowledged + timeout.toNanos();
+    while (true) {
+      long readStart = System.nanoTime();
+      if (check.isVisible(attempt)) {
+        windows.computeIfAbsent(name, key -> new ConcurrentHistogram(3))
+            .recordValue((readStart - acknowledged) / 1_000);
+        return;
+      }
+      staleReads.computeIfAbsent(name, key -> new LongAdder()).increment();
+      if (System.nanoTime() > deadline) {
+        timeouts.computeIfAbsent(name, key -> new LongAdder()).increment();
+        return;
+      }
+      LockSupport.parkNanos(pollInterval.toNanos());
+    }
+  }
+
+  public Histogram window(String name) {
+    Histogram histogram = windows.get(name);
+    return histogram != null ? histogram.copy() : new Histogram(3);
+  }
+
+  public long staleReads(String name) {
+    LongAdder counter = staleReads.get(name);
+    return counter != null ? counter.sum() : 0;
+  }
+
+  public long timeouts(String name) {
+    LongAdder counter = timeouts.get(name);
+    return counter != null ? counter.sum() : 0;
+  }
+}
@@ -0,0 +1,135 @@
+package com.ognjen.template.systemtest.perftests;
+
+import com.ognjen.template.systemtest.harness.AuthSettings;
+import com.ognjen.template.systemtest.harness.AuthenticatedScenario;
+import com.ognjen.template.systemtest.harness.BudgetOkClient;
+import com.ognjen.template.systemtest.harness.DatabaseFixture;
+import com.ognjen.template.systemtest.harness.Fixtures;
+import com.ognjen.template.systemtest.harness.LoadRunner;
+import com.ognjen.template.systemtest.harness.OperationMetrics;
+import com.ognjen.template.systemtest.harness.PerfReport;
+import com.ognjen.template.systemtest.harness.Scenario;
+import com.ognjen.template.systemtest.harness.Scenarios;
+import com.ognjen.template.systemtest.harness.SessionPool;
+import java.time.Duration;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Registers and logs in a large pool of users, measures what the token costs on an envelope read
+ * compared with the same read sent anonymously, and runs the envelope mix as logged-in users.
+ * All three share the JVM's {@link SessionPool}. Needs {@code -Dperf.auth.enabled=true} and a
+ * backend with the configured auth endpoints.
+ */
+@Tag("perf")
+@DatabaseFixture(Fixtures.LARGE)
+class AuthenticatedSessionPerfTest {
+
+  private static final int VIRTUAL_USERS = Integer.getInteger("perf.virtualUsers", 16);
+  private static final int SETUP_USERS = 16;
+  private static final int ITERATIONS = Integer.getInteger("perf.iterations", 5_000);
+  private static final Duration DURATION =
+      Duration.ofSeconds(Long.getLong("perf.durationSeconds", 30));
+
+  private static final BudgetOkClient api = new BudgetOkClient();
+  private static final AuthSettings settings = AuthSettings.fromSystemProperties();
+
+  @BeforeAll
+  static void requireAuth() {
+    assumeTrue(settings.enabled(), "Set -Dperf.auth.enabled=true to run authenticated scenarios");
+  }
+
+  @Test
+  void givenThousandsOfUsers_whenRegisteringAndLoggingIn_thenEveryUserGetsAToken()
+      throws Exception {
+    SessionPool sessions = SessionPool.shared(settings);
+
+    PerfReport report = PerfReport.latencies(
+        "Register and login (" + settings.users() + " users)", sessions.provisioning(),
+        sessions.provisioningTime());
+    report.print();
+    report.writeCsv("auth-provisioning.csv");
+
+    assertEquals(settings.users(), sessions.size());
+    assertEquals(0, sessions.provisioning().errorCount(SessionPool.LOGIN),
+        "No login should fail");
+  }
+
+  @Test
+  void givenLoggedInUsers_whenReadingEnvelopes_thenReportTokenValidationOverhead()
+      throws Exception {
+    SessionPool sessions = SessionPool.shared(settings);
+    long[] envelopeIds = new long[sessions.size()];
+    new LoadRunner(new OperationMetrics(), "auth-overhead-setup").run(SETUP_USERS,
+        sessions.size(), session -> envelopeIds[session] =
+            sessions.client(session).createEnvelopeId("Auth Overhead " + session, 1_000));
+
+    // The two runs alternate so that neither one gets a warmer backend than the other. Both
+    // read the envelope the session owns; only the token run sends that session's token.
+    OperationMetrics metrics = new OperationMetrics();
+    LoadRunner runner = new LoadRunner(metrics, "auth-overhead");
+    long start = System.nanoTime();
+    runner.run(VIRTUAL_USERS, ITERATIONS * 2, iteration -> {
+      int session = sessions.index(iteration / 2);
+      long envelopeId = envelopeIds[session];
+      if (iteration % 2 == 0) {
+        runner.execute("anonymous", iteration, i -> api.getEnvelope(envelopeId));
+      } else {
+        runner.execute("token", iteration,
+            i -> sessions.client(session).getEnvelope(envelopeId));
+      }
+    });
+    Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+    PerfReport.latencies("Envelope read with and without a token", metrics, elapsed).print();
+
+    Histogram token = metrics.latency("token");
+    Histogram anonymous = metrics.latency("anonymous");
+    boolean anonymousAllowed = metrics.successCount("anonymous") > 0;
+    PerfReport report = new PerfReport("Token validation overhead per request",
+        "anonymous_allowed", "token_p50_us", "token_p99_us", "overhead_p50_us", "overhead_p99_us");
+    report.row(anonymousAllowed, token.getValueAtPercentile(50), token.getValueAtPercentile(99),
+        anonymousAllowed
+            ? token.getValueAtPercentile(50) - anonymous.getValueAtPercentile(50) : "n/a",
+        anonymousAllowed
+            ? token.getValueAtPercentile(99) - anonymous.getValueAtPercentile(99) : "n/a");
+    report.print();
+    report.writeCsv("auth-overhead.csv");
+    System.out.println("Re-logins after a 401 so far: " + sessions.relogins());
+
+    assertEquals(0, metrics.errorCount("token"), "No authenticated read should fail");
+  }
+
+  @Test
+  void givenLoggedInUsers_whenRunningEnvelopeMix_thenEveryRequestCarriesAToken()
+      throws Exception {
+    Scenario scenario = Scenarios.named(Scenarios.ENVELOPE_MIX);
+    assertTrue(scenario instanceof AuthenticatedScenario,
+        "Scenarios should run authenticated when perf.auth.enabled is set");
+    scenario.prepare(api);
+
+    OperationMetrics metrics = new OperationMetrics();
+    LoadRunner runner = new LoadRunner(metrics, "auth-envelope-mix");
+    long start = System.nanoTime();
+    runner.runFor(VIRTUAL_USERS, DURATION,
+        iteration -> scenario.iteration(api, runner, iteration));
+    Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+    PerfReport report = PerfReport.latencies("Authenticated " + scenario.name(), metrics,
+        elapsed);
+    report.print();
+    report.writeCsv("auth-envelope-mix.csv");
+    System.out.println("Re-logins after a 401 so far: "
+        + ((AuthenticatedScenario) scenario).sessions().relogins());
+
+    for (String operation : metrics.operations()) {
+      assertEquals(0, metrics.errorCount(operation), operation + " should not fail");
+    }
+  }
+}
@@ -0,0 +1,90 @@
+package com.ognjen.template.systemtest.perftests;
+
+import com.ognjen.template.systemtest.harness.BudgetOkClient;
+import com.ognjen.template.systemtest.harness.CapacitySearch;
+import com.ognjen.template.systemtest.harness.DatabaseFixture;
+import com.ognjen.template.systemtest.harness.Fixtures;
+import com.ognjen.template.systemtest.harness.PerfReport;
+import com.ognjen.template.systemtest.harness.PostgresFixtures;
+import com.ognjen.template.systemtest.harness.Scenarios;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("perf")
+@DatabaseFixture(Fixtures.LARGE)
+class CapacitySearchPerfTest {
+
+  private static final CapacitySearch.Slo SLO = new CapacitySearch.Slo(
+      Long.getLong("perf.slo.p99Millis", 200) * 1_000,
+      Double.parseDouble(System.getProperty("perf.slo.maxErrorRate", "0.01")),
+      Double.parseDouble(System.getProperty("perf.slo.minThroughputRatio", "0.95")));
+
+  private static final CapacitySearch.Settings SETTINGS = new CapacitySearch.Settings(
+      CapacitySearch.Mode.valueOf(System.getProperty("perf.capacity.mode", "BINARY")),
+      Double.parseDouble(System.getProperty("perf.capacity.startRate", "25")),
+      Double.parseDouble(System.getProperty("perf.capacity.stepRate", "25")),
+      Double.parseDouble(System.getProperty("perf.capacity.maxRate", "5000")),
+      Double.parseDouble(System.getProperty("perf.capacity.tolerance", "0.05")));
+
+  private static final Duration STEP_DURATION =
+      Duration.ofSeconds(Long.getLong("perf.capacity.stepSeconds", 20));
+  private static final int MAX_CONCURRENCY =
+      Integer.getInteger("perf.capacity.maxConcurrency", 256);
+
+  private static final BudgetOkClient api = new BudgetOkClient();
+  private static final PerfReport summary = new PerfReport("Capacity (knee of the curve)",
+      "scenario", "knee_rps", "lower_bound", "p99_slo_ms", "max_error_rate", "probes");
+
+  static Stream<String> scenarios() {
+    return Arrays.stream(System.getProperty("perf.capacity.scenarios",
+            String.join(",", Scenarios.ENVELOPE_READS, Scenarios.ENVELOPE_MIX,
+                Scenarios.EXPENSE_WRITES))
+        .split(","))
+        .map(String::trim);
+  }
+
+  @ParameterizedTest(name = "{0}")
+  @MethodSource("scenarios")
+  void givenScenario_whenRaisingArrivalRate_thenFindHighestRateWithinSlo(String scenarioName)
+      throws Exception {
+
+    // Every probe starts from the same data, so the knee does not drift with probe order as
+    // earlier probes pile expenses into the envelopes later ones read.
+    CapacitySearch.Result result = new CapacitySearch(SETTINGS).search(
+        CapacitySearch.scenarioProbe(() -> {
+          PostgresFixtures.shared().restore(Fixtures.named(Fixtures.LARGE));
+          return Scenarios.named(scenarioName);
+        }, api, STEP_DURATION, MAX_CONCURRENCY, SLO));
+
+    PerfReport curve = new PerfReport("Throughput/latency curve: " + scenarioName,
+        "offered_rps", "achieved_rps", "p50_us", "p99_us", "error_rate", "within_slo");
+    for (CapacitySearch.CurvePoint point : result.curve()) {
+      curve.row(point.offeredRate(), point.achievedRate(), point.p50Micros(), point.p99Micros(),
+          point.errorRate(), point.withinSlo());
+    }
+    curve.print();
+    curve.writeCsv("capacity-" + scenarioName + ".csv");
+    summary.row(scenarioName, result.kneeRate(), result.lowerBound(), SLO.p99Micros() / 1_000,
+        SLO.maxErrorRate(), result.curve().size());
+    if (result.lowerBound()) {
+      System.out.println(scenarioName + " stayed within the SLO up to perf.capacity.maxRate; its"
+          + " capacity is at least " + result.kneeRate() + " rps");
+    }
+
+    assertTrue(result.kneeRate() > 0,
+        scenarioName + " should sustain at least " + SETTINGS.startRate() + " rps within the SLO");
+  }
+
+  @AfterAll
+  static void printSummary() {
+    summary.print();
+    summary.writeCsv("capacity-summary.csv");
+  }
+}
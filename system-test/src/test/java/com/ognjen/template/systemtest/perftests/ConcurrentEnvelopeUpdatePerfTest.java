@@ -0,0 +1,169 @@
+package com.ognjen.template.systemtest.perftests;
+
+import com.ognjen.template.systemtest.harness.BudgetOkClient;
+import com.ognjen.template.systemtest.harness.DatabaseFixture;
+import com.ognjen.template.systemtest.harness.Fixtures;
+import com.ognjen.template.systemtest.harness.LoadRunner;
+import com.ognjen.template.systemtest.harness.OperationMetrics;
+import com.ognjen.template.systemtest.harness.PerfReport;
+import com.ognjen.template.systemtest.harness.SessionPool;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Many clients read-modify-write the budget of the same few envelopes while others post expenses
+ * to them. Every successful update adds exactly one to the budget, so the final budget shows how
+ * many updates were lost; the final expense list shows whether any expense post was overwritten.
+ */
+@Tag("perf")
+@DatabaseFixture(Fixtures.LARGE)
+class ConcurrentEnvelopeUpdatePerfTest {
+
+  private static final int CLIENTS = Integer.getInteger("perf.virtualUsers", 32);
+  private static final int ENVELOPES = Integer.getInteger("perf.concurrency.envelopes", 4);
+  private static final int MAX_RETRIES = Integer.getInteger("perf.concurrency.maxRetries", 5);
+  private static final Duration DURATION =
+      Duration.ofSeconds(Long.getLong("perf.durationSeconds", 30));
+  private static final int INITIAL_BUDGET = 1_000;
+
+  private static BudgetOkClient api;
+  private static final PerfReport report = new PerfReport("Concurrent envelope updates",
+      "mode", "etag_supported", "updates", "updates_per_s", "update_p50_us", "update_p99_us",
+      "expense_p99_us", "conflicts", "retries", "lost_updates", "lost_expenses");
+
+  private enum Mode {
+    UNCONDITIONAL,
+    IF_MATCH
+  }
+
+  @BeforeAll
+  static void logIn() throws Exception {
+    api = SessionPool.asUser(new BudgetOkClient());
+  }
+
+  @Test
+  void givenConcurrentClients_whenUpdatingWithoutPreconditions_thenMeasureLostUpdates()
+      throws Exception {
+    run(Mode.UNCONDITIONAL);
+  }
+
+  @Test
+  void givenConcurrentClients_whenUpdatingWithIfMatch_thenNoUpdateIsLost() throws Exception {
+    Outcome outcome = run(Mode.IF_MATCH);
+
+    assumeTrue(outcome.etagSupported(),
+        "The backend sends no ETag, so If-Match updates cannot be checked for lost updates");
+    assertEquals(0, outcome.lostUpdates(), "Versioned updates should never be lost");
+  }
+
+  @AfterAll
+  static void printReport() {
+    report.print();
+    report.writeCsv("concurrent-updates.csv");
+  }
+
+  private record Outcome(boolean etagSupported, long lostUpdates) {
+  }
+
+  private Outcome run(Mode mode) throws Exception {
+    List<Long> envelopeIds = new ArrayList<>();
+    for (int i = 0; i < ENVELOPES; i++) {
+      envelopeIds.add(api.createEnvelopeId("Shared " + mode + " " + i, INITIAL_BUDGET));
+    }
+    boolean etagSupported = api.getEnvelope(envelopeIds.get(0)).headers()
+        .firstValue("ETag").isPresent();
+
+    OperationMetrics metrics = new OperationMetrics();
+    LoadRunner runner = new LoadRunner(metrics, "concurrent-updates " + mode);
+    Map<Long, LongAdder> appliedUpdates = new ConcurrentHashMap<>();
+    Map<Long, LongAdder> postedExpenses = new ConcurrentHashMap<>();
+    LongAdder conflicts = new LongAdder();
+    LongAdder retries = new LongAdder();
+    String memoPrefix = "Concurrent " + mode + " ";
+
+    long start = System.nanoTime();
+    runner.runFor(CLIENTS, DURATION, iteration -> {
+      long envelopeId = envelopeIds.get(iteration % ENVELOPES);
+      if (iteration % 5 == 4) {
+        if (runner.execute("add-expense", iteration,
+            i -> api.addExpense(envelopeId, 1, memoPrefix + i, "WITHDRAW"))) {
+          postedExpenses.computeIfAbsent(envelopeId, key -> new LongAdder()).increment();
+        }
+        return;
+      }
+      if (runner.execute("update", iteration,
+          i -> incrementBudget(mode, envelopeId, i, conflicts, retries))) {
+        appliedUpdates.computeIfAbsent(envelopeId, key -> new LongAdder()).increment();
+      }
+    });
+    double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+    long lostUpdates = 0;
+    long lostExpenses = 0;
+    for (long envelopeId : envelopeIds) {
+      String body = api.getEnvelope(envelopeId).body();
+      long applied = Optional.ofNullable(appliedUpdates.get(envelopeId)).map(LongAdder::sum)
+          .orElse(0L);
+      long posted = Optional.ofNullable(postedExpenses.get(envelopeId)).map(LongAdder::sum)
+          .orElse(0L);
+      lostUpdates += applied - (BudgetOkClient.extractNumber(body, "budget") - INITIAL_BUDGET);
+      lostExpenses += posted - occurrences(body, "\"memo\":\"" + memoPrefix);
+    }
+
+    Histogram updates = metrics.latency("update");
+    report.row(mode, etagSupported, updates.getTotalCount(), updates.getTotalCount() / seconds,
+        updates.getValueAtPercentile(50), updates.getValueAtPercentile(99),
+        metrics.latency("add-expense").getValueAtPercentile(99), conflicts.sum(), retries.sum(),
+        lostUpdates, lostExpenses);
+
+    return new Outcome(etagSupported, lostUpdates);
+  }
+
+  // Reads the envelope, then writes it back with budget + 1. With If-Match a 412 means another
+  // client won the race, so the read-modify-write is retried on fresh data.
+  private static HttpResponse<String> incrementBudget(Mode mode, long envelopeId, int iteration,
+      LongAdder conflicts, LongAdder retries) throws Exception {
+    HttpResponse<String> response = null;
+    for (int attempt = 0; attempt <= MAX_RETRIES; attempt++) {
+      if (attempt > 0) {
+        retries.increment();
+      }
+      HttpResponse<String> current = api.getEnvelope(envelopeId);
+      int budget = BudgetOkClient.extractNumber(current.body(), "budget");
+      String name = "Shared " + mode + " " + (envelopeId % ENVELOPES) + " v" + iteration;
+
+      Map<String, String> headers = mode == Mode.IF_MATCH
+          ? current.headers().firstValue("ETag").map(etag -> Map.of("If-Match", etag))
+              .orElse(Map.of())
+          : Map.of();
+      response = api.updateEnvelope(envelopeId, name, budget + 1, headers);
+      if (response.statusCode() != 412 && response.statusCode() != 409) {
+        return response;
+      }
+      conflicts.increment();
+    }
+    return response;
+  }
+
+  private static long occurrences(String body, String needle) {
+    long count = 0;
+    for (int index = body.indexOf(needle); index != -1; index = body.indexOf(needle, index + 1)) {
+      count++;
+    }
+    return count;
+  }
+}
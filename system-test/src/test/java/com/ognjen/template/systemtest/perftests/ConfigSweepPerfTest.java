@@ -0,0 +1,66 @@
+package com.ognjen.template.systemtest.perftests;
+
+import com.ognjen.template.systemtest.harness.BudgetOkClient;
+import com.ognjen.template.systemtest.harness.ConfigSweep;
+import com.ognjen.template.systemtest.harness.DockerCompose;
+import com.ognjen.template.systemtest.harness.Fixtures;
+import com.ognjen.template.systemtest.harness.PerfReport;
+import com.ognjen.template.systemtest.harness.ResourceUsage;
+import com.ognjen.template.systemtest.harness.Scenarios;
+import com.ognjen.template.systemtest.harness.StackConfig;
+import java.time.Duration;
+import java.util.List;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Restarts the stack for every combination of the {@code perf.sweep.*} settings and runs the same
+ * scenario against it. Each run starts from the {@code large} fixture, which the sweep restores
+ * itself after every restart.
+ */
+@Tag("perf")
+class ConfigSweepPerfTest {
+
+  private static final ConfigSweep.Settings SETTINGS = new ConfigSweep.Settings(
+      System.getProperty("perf.scenario", Scenarios.ENVELOPE_MIX),
+      Fixtures.named(Fixtures.LARGE),
+      Integer.getInteger("perf.virtualUsers", 16),
+      Duration.ofSeconds(Long.getLong("perf.warmupSeconds", 10)),
+      Duration.ofSeconds(Long.getLong("perf.durationSeconds", 30)),
+      Duration.ofSeconds(Long.getLong("perf.sweep.startupTimeoutSeconds", 180)));
+
+  @Test
+  void givenSettingsMatrix_whenRunningProfileOnEachCombination_thenCompareThem()
+      throws Exception {
+    List<StackConfig> configs = StackConfig.matrixFromSystemProperties();
+    ConfigSweep sweep = new ConfigSweep(new DockerCompose(), new BudgetOkClient(), SETTINGS);
+
+    List<ConfigSweep.Outcome> outcomes = sweep.run(configs);
+
+    PerfReport report = new PerfReport(
+        "Configuration sweep: " + SETTINGS.scenario() + " with " + SETTINGS.virtualUsers()
+            + " users", "config", "ops", "throughput_rps", "vs_first", "p50_us", "p99_us",
+        "p999_us", "errors", "backend_cpu_ms_per_op", "db_cpu_ms_per_op",
+        "backend_idle_cpu_ms_per_s", "db_idle_cpu_ms_per_s", "backend_mem_peak_mb");
+    // A first configuration that served nothing leaves nothing to compare against.
+    double baseline = outcomes.get(0).throughput();
+    for (ConfigSweep.Outcome outcome : outcomes) {
+      Histogram all = new Histogram(3);
+      outcome.metrics().operations().forEach(op -> all.add(outcome.metrics().latency(op)));
+      ResourceUsage backend = outcome.usage().get("backend");
+      report.row(outcome.config().name(), outcome.operations(), outcome.throughput(),
+          baseline > 0 ? outcome.throughput() / baseline : "n/a", all.getValueAtPercentile(50),
+          all.getValueAtPercentile(99), all.getValueAtPercentile(99.9), outcome.errors(),
+          outcome.cpuMillisPerOperation("backend"), outcome.cpuMillisPerOperation("db"),
+          outcome.idleCpu().get("backend") / 1_000, outcome.idleCpu().get("db") / 1_000,
+          backend.memoryPeakBytes() / (1024 * 1024));
+    }
+    report.print();
+    report.writeCsv("config-sweep.csv");
+
+    assertEquals(configs.size(), outcomes.size());
+  }
+}
@@ -0,0 +1,68 @@
+package com.ognjen.template.systemtest.perftests;
+
+import com.ognjen.template.systemtest.harness.DatabaseFixture;
+import com.ognjen.template.systemtest.harness.Fixtures;
+import com.ognjen.template.systemtest.harness.LoadCoordinator;
+import com.ognjen.template.systemtest.harness.OperationMetrics;
+import com.ognjen.template.systemtest.harness.PerfReport;
+import com.ognjen.template.systemtest.harness.Scenarios;
+import java.time.Duration;
+import java.util.Set;
+import java.util.TreeSet;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("perf")
+@DatabaseFixture(Fixtures.LARGE)
+class DistributedLoadPerfTest {
+
+  private static final int WORKERS = Integer.getInteger("perf.workers", 2);
+  private static final int USERS_PER_WORKER = Integer.getInteger("perf.virtualUsers", 8);
+  private static final Duration DURATION =
+      Duration.ofSeconds(Long.getLong("perf.durationSeconds", 30));
+  private static final String SCENARIO = System.getProperty("perf.scenario",
+      Scenarios.ENVELOPE_MIX);
+  private static final long MAX_START_SKEW_MILLIS = Long.getLong("perf.maxStartSkewMillis", 500);
+
+  @Test
+  void givenLocalWorkers_whenRunningScenarioInSync_thenHistogramsAreMergedIntoOneReport()
+      throws Exception {
+    try (LoadCoordinator coordinator = new LoadCoordinator(0)) {
+      coordinator.spawnLocalWorkers(WORKERS);
+
+      LoadCoordinator.Result result = coordinator.run(WORKERS, SCENARIO, USERS_PER_WORKER,
+          DURATION);
+
+      PerfReport report = PerfReport.latencies(
+          "Distributed " + SCENARIO + " (" + WORKERS + " workers)", result.merged(),
+          result.elapsed());
+      report.print();
+      report.writeCsv("distributed-load.csv");
+      result.perWorker().forEach((worker, workerResult) ->
+          PerfReport.latencies(worker, workerResult.metrics(), result.elapsed()).print());
+      System.out.println("Worker start skew: " + result.startSkewMillis() + " ms");
+
+      Set<String> operations = new TreeSet<>(result.merged().operations());
+      result.perWorker().values().forEach(workerResult ->
+          operations.addAll(workerResult.reportedCounts().keySet()));
+      for (String operation : operations) {
+        long reportedTotal = result.perWorker().values().stream()
+            .mapToLong(workerResult -> workerResult.reportedCounts().getOrDefault(operation, 0L))
+            .sum();
+        assertEquals(reportedTotal, result.merged().successCount(operation),
+            "Merged " + operation + " count should equal the sum the workers counted themselves");
+      }
+      assertTrue(result.startSkewMillis() <= MAX_START_SKEW_MILLIS,
+          "Workers should start within " + MAX_START_SKEW_MILLIS + " ms of each other but were "
+              + result.startSkewMillis() + " ms apart");
+      assertEquals(0, totalErrors(result.merged()), "No request should fail");
+    }
+  }
+
+  private static long totalErrors(OperationMetrics metrics) {
+    return metrics.operations().stream().mapToLong(metrics::errorCount).sum();
+  }
+}
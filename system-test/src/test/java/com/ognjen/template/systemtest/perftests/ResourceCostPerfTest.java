@@ -0,0 +1,110 @@
+package com.ognjen.template.systemtest.perftests;
+
+import com.ognjen.template.systemtest.harness.AllocationCounter;
+import com.ognjen.template.systemtest.harness.BudgetOkClient;
+import com.ognjen.template.systemtest.harness.ContainerResourceSampler;
+import com.ognjen.template.systemtest.harness.DatabaseFixture;
+import com.ognjen.template.systemtest.harness.Fixtures;
+import com.ognjen.template.systemtest.harness.LoadRunner;
+import com.ognjen.template.systemtest.harness.OperationMetrics;
+import com.ognjen.template.systemtest.harness.PerfReport;
+import com.ognjen.template.systemtest.harness.ResourceUsage;
+import com.ognjen.template.systemtest.harness.SessionPool;
+import java.util.Map;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Tag("perf")
+@DatabaseFixture(Fixtures.LARGE)
+class ResourceCostPerfTest {
+
+  private static final int ITERATIONS = Integer.getInteger("perf.iterations", 200);
+  private static final int VIRTUAL_USERS = Integer.getInteger("perf.virtualUsers", 4);
+  private static final long IDLE_WINDOW_MILLIS = Long.getLong("perf.idleWindowMillis", 5_000);
+
+  private static BudgetOkClient api;
+  private static AllocationCounter allocation;
+  private static final ContainerResourceSampler sampler = new ContainerResourceSampler();
+  private static final OperationMetrics metrics = new OperationMetrics();
+  private static final PerfReport report = new PerfReport("Cost per operation",
+      "operation", "service", "ops", "p50_us", "p99_us", "cpu_ms_per_op",
+      "alloc_bytes_per_op", "mem_growth_bytes", "mem_peak_bytes");
+
+  private static Map<String, Double> idleCpu;
+
+  @BeforeAll
+  static void measureIdleBurn() throws Exception {
+    api = SessionPool.asUser(new BudgetOkClient());
+    allocation = new AllocationCounter(api);
+    idleCpu = sampler.measureIdle(IDLE_WINDOW_MILLIS);
+  }
+
+  @Test
+  void givenRunningStack_whenCreatingEnvelopes_thenReportCostPerOperation() throws Exception {
+    measure("create-envelope",
+        iteration -> api.createEnvelope("Cost " + iteration, 1000));
+  }
+
+  @Test
+  void givenEnvelope_whenAddingExpenses_thenReportCostPerOperation() throws Exception {
+    long envelopeId = api.createEnvelopeId("Cost Expenses", ITERATIONS * 10);
+
+    measure("add-expense",
+        iteration -> api.addExpense(envelopeId, 1, "Cost " + iteration, "WITHDRAW"));
+  }
+
+  @Test
+  void givenTwoEnvelopes_whenTransferring_thenReportCostPerOperation() throws Exception {
+    long sourceId = api.createEnvelopeId("Cost Source", ITERATIONS * 10);
+    long targetId = api.createEnvelopeId("Cost Target", 0);
+
+    measure("transfer",
+        iteration -> api.transfer(sourceId, targetId, 1, "Cost " + iteration));
+  }
+
+  @Test
+  void givenBankOk_whenSyncing_thenReportCostPerOperation() throws Exception {
+    measure("sync-bank-ok", iteration -> api.syncBankOk());
+  }
+
+  private void measure(String operation, LoadRunner.Operation call) throws Exception {
+    Map<String, ResourceUsage> usage;
+    long allocatedBefore = allocation.allocatedBytes();
+    sampler.start();
+    try {
+      new LoadRunner(metrics, "cost " + operation).run(operation, VIRTUAL_USERS, ITERATIONS,
+          call);
+    } finally {
+      usage = sampler.stop();
+    }
+    long allocatedAfter = allocation.allocatedBytes();
+
+    long ops = metrics.successCount(operation);
+    Histogram latency = metrics.latency(operation);
+    for (ResourceUsage service : usage.values()) {
+      report.row(operation, service.service(), ops,
+          latency.getValueAtPercentile(50), latency.getValueAtPercentile(99),
+          service.cpuMillisPerOperation(ops, idleCpu.getOrDefault(service.service(), 0.0)),
+          allocationPerOperation(service.service(), allocatedBefore, allocatedAfter, ops),
+          service.memoryGrowthBytes(), service.memoryPeakBytes());
+    }
+    report.print();
+    report.writeCsv("resource-cost.csv");
+
+    assertEquals(0, metrics.errorCount(operation), "All " + operation + " requests should succeed");
+  }
+
+  // Allocation is read from the backend JVM, so other containers and a backend without the
+  // actuator metric report n/a.
+  private static Object allocationPerOperation(String service, long before, long after,
+      long ops) {
+    if (!service.equals("backend") || before < 0 || after < 0 || ops == 0) {
+      return "n/a";
+    }
+    return (double) (after - before) / ops;
+  }
+}
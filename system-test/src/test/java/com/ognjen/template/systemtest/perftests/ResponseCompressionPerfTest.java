@@ -0,0 +1,149 @@
+package com.ognjen.template.systemtest.perftests;
+
+import com.ognjen.template.systemtest.harness.BudgetOkClient;
+import com.ognjen.template.systemtest.harness.ContainerResourceSampler;
+import com.ognjen.template.systemtest.harness.DatabaseFixture;
+import com.ognjen.template.systemtest.harness.DockerCompose;
+import com.ognjen.template.systemtest.harness.Fixtures;
+import com.ognjen.template.systemtest.harness.LoadRunner;
+import com.ognjen.template.systemtest.harness.OperationMetrics;
+import com.ognjen.template.systemtest.harness.PerfReport;
+import com.ognjen.template.systemtest.harness.ResourceUsage;
+import com.ognjen.template.systemtest.harness.SessionPool;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares repeated reads of large, unchanged envelopes with and without response compression
+ * and ETag revalidation. Whether the backend honours each header is reported, not asserted.
+ */
+@Tag("perf")
+@DatabaseFixture(Fixtures.LARGE)
+class ResponseCompressionPerfTest {
+
+  private static final int ITERATIONS = Integer.getInteger("perf.iterations", 500);
+  private static final int VIRTUAL_USERS = Integer.getInteger("perf.virtualUsers", 4);
+
+  private static BudgetOkClient api;
+  private static final ContainerResourceSampler sampler = new ContainerResourceSampler(
+      new DockerCompose(), List.of("backend"), 1_000);
+  private static final PerfReport report = new PerfReport("Envelope reads on the wire",
+      "endpoint", "variant", "ops", "avg_wire_bytes", "p50_us", "p99_us", "not_modified",
+      "content_encoding", "backend_cpu_ms_per_op");
+
+  private static long largeEnvelopeId;
+  private static double backendIdleCpu;
+
+  private enum Variant {
+    PLAIN(Map.of(), false),
+    GZIP(Map.of("Accept-Encoding", "gzip"), false),
+    BROTLI(Map.of("Accept-Encoding", "br"), false),
+    CONDITIONAL(Map.of(), true),
+    CONDITIONAL_GZIP(Map.of("Accept-Encoding", "gzip, br"), true);
+
+    private final Map<String, String> headers;
+    private final boolean revalidate;
+
+    Variant(Map<String, String> headers, boolean revalidate) {
+      this.headers = headers;
+      this.revalidate = revalidate;
+    }
+  }
+
+  @BeforeAll
+  static void findLargeEnvelope() throws Exception {
+    // Pinned to HTTP/1.1 so that headers go over the wire as plain text, as wireBytes counts them.
+    api = SessionPool.asUser(new BudgetOkClient(HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(BudgetOkClient.REQUEST_TIMEOUT)
+        .build()));
+    backendIdleCpu = sampler.measureIdle(Long.getLong("perf.idleWindowMillis", 5_000))
+        .get("backend");
+    largeEnvelopeId = api.findEnvelopeId("Envelope 0");
+  }
+
+  @Test
+  void givenLargeUnchangedEnvelope_whenPollingById_thenCompareWireBytesAndLatency()
+      throws Exception {
+    compareVariants("/api/envelopes/" + largeEnvelopeId);
+  }
+
+  @Test
+  void givenManyEnvelopes_whenPollingList_thenCompareWireBytesAndLatency() throws Exception {
+    compareVariants("/api/envelopes");
+  }
+
+  private void compareVariants(String path) throws Exception {
+    for (Variant variant : Variant.values()) {
+      OperationMetrics metrics = new OperationMetrics();
+      String operation = path + " " + variant;
+      LoadRunner runner = new LoadRunner(metrics, "compression " + operation);
+      AtomicReference<String> etag = new AtomicReference<>();
+      AtomicReference<String> contentEncoding = new AtomicReference<>("identity");
+      LongAdder notModified = new LongAdder();
+
+      ResourceUsage backend;
+      sampler.start();
+      try {
+        runner.run(operation, VIRTUAL_USERS, ITERATIONS, iteration -> {
+          Map<String, String> headers = new LinkedHashMap<>(variant.headers);
+          if (variant.revalidate && etag.get() != null) {
+            headers.put("If-None-Match", etag.get());
+          }
+
+          HttpResponse<byte[]> response = api.getRaw(path, headers);
+
+          metrics.recordBytes(operation, wireBytes(response));
+          response.headers().firstValue("ETag").ifPresent(etag::set);
+          response.headers().firstValue("Content-Encoding").ifPresent(contentEncoding::set);
+          if (response.statusCode() == 304) {
+            notModified.increment();
+          }
+          return response;
+        });
+      } finally {
+        backend = sampler.stop().get("backend");
+      }
+
+      long ops = metrics.successCount(operation);
+      Histogram latency = metrics.latency(operation);
+      report.row(path, variant, ops, ops > 0 ? metrics.bytes(operation) / ops : 0,
+          latency.getValueAtPercentile(50), latency.getValueAtPercentile(99),
+          notModified.sum(), contentEncoding.get(),
+          backend.cpuMillisPerOperation(ops, backendIdleCpu));
+
+      assertEquals(0, metrics.errorCount(operation), "All reads should succeed for " + variant);
+    }
+    report.print();
+    report.writeCsv("response-compression.csv");
+  }
+
+  // Approximate HTTP/1.1 response size: status line and headers as received, plus the (possibly
+  // compressed) body. The client does not decompress, so the body length is the transfer size;
+  // chunked framing is not counted.
+  private static long wireBytes(HttpResponse<byte[]> response) {
+    String reason = switch (response.statusCode()) {
+      case 200 -> "OK";
+      case 304 -> "Not Modified";
+      default -> "";
+    };
+    long headerBytes = ("HTTP/1.1 " + response.statusCode() + " " + reason + "\r\n").length() + 2;
+    for (Map.Entry<String, List<String>> header : response.headers().map().entrySet()) {
+      for (String value : header.getValue()) {
+        headerBytes += header.getKey().length() + value.length() + 4;
+      }
+    }
+    return headerBytes + response.body().length;
+  }
+}
@@ -0,0 +1,139 @@
+package com.ognjen.template.systemtest.perftests;
+
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.Request;
+import com.microsoft.playwright.Response;
+import com.microsoft.playwright.options.WaitUntilState;
+import com.ognjen.template.systemtest.harness.BrowserPool;
+import com.ognjen.template.systemtest.harness.DatabaseFixture;
+import com.ognjen.template.systemtest.harness.Fixtures;
+import com.ognjen.template.systemtest.harness.LoadRunner;
+import com.ognjen.template.systemtest.harness.OperationMetrics;
+import com.ognjen.template.systemtest.harness.PerfReport;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Browser-level load: every virtual user is a headless Chromium session that keeps reloading the
+ * frontend. A page load is timed to the load event, or to {@code perf.ui.readySelector} when set,
+ * rather than to network idle, which would add Playwright's 500 ms quiet window to every sample.
+ * Besides the page load itself, every fetch/XHR the frontend makes is recorded per endpoint from
+ * the browser's own timing, so the report shows what real browser sessions cost the backend.
+ */
+@Tag("perf")
+@DatabaseFixture(Fixtures.LARGE)
+class UiLoadPerfTest {
+
+  private static final int VIRTUAL_USERS = Integer.getInteger("perf.ui.virtualUsers", 24);
+  private static final Duration DURATION =
+      Duration.ofSeconds(Long.getLong("perf.durationSeconds", 30));
+  private static final String PAGE_LOAD = "page-load";
+  private static final String READY_SELECTOR = System.getProperty("perf.ui.readySelector");
+  // Requests still in flight when the next reload starts are cancelled by the browser.
+  private static final String ABORTED = "net::ERR_ABORTED";
+
+  private static final BrowserPool browsers = new BrowserPool(VIRTUAL_USERS,
+      !"false".equals(System.getProperty("ui.headless")));
+  private static final List<BrowserPool.Lease> sessions = new CopyOnWriteArrayList<>();
+
+  @BeforeAll
+  static void launchBrowsers() throws Exception {
+    browsers.warmUp(VIRTUAL_USERS);
+  }
+
+  @AfterAll
+  static void closeBrowsers() {
+    sessions.forEach(BrowserPool.Lease::close);
+    browsers.close();
+  }
+
+  @Test
+  void givenConcurrentBrowserSessions_whenReloadingFrontend_thenReportPageAndApiLatencies()
+      throws Exception {
+    OperationMetrics metrics = new OperationMetrics();
+    LoadRunner runner = new LoadRunner(metrics, "ui-load");
+    ThreadLocal<Page> page = ThreadLocal.withInitial(() -> openSession(metrics));
+
+    long start = System.nanoTime();
+    runner.runFor(VIRTUAL_USERS, DURATION, iteration -> loadHomePage(page.get(), metrics));
+    Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+    PerfReport report = PerfReport.latencies(
+        "Frontend under " + VIRTUAL_USERS + " browser sessions", metrics, elapsed);
+    report.print();
+    report.writeCsv("ui-load.csv");
+
+    assertEquals(0, metrics.errorCount(PAGE_LOAD), "Every page load should succeed");
+  }
+
+  private static Page openSession(OperationMetrics metrics) {
+    try {
+      BrowserPool.Lease lease = browsers.acquire();
+      sessions.add(lease);
+      Page page = lease.page();
+      page.onRequestFinished(request -> recordApiCall(request, metrics));
+      page.onRequestFailed(request -> {
+        if (isApiCall(request) && !ABORTED.equals(request.failure())) {
+          metrics.recordError(operationName(request));
+        }
+      });
+      return page;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for a browser", e);
+    }
+  }
+
+  private static void loadHomePage(Page page, OperationMetrics metrics) {
+    long start = System.nanoTime();
+    try {
+      Response response = page.navigate(BrowserPool.FRONTEND_URL,
+          new Page.NavigateOptions().setWaitUntil(WaitUntilState.LOAD));
+      if (READY_SELECTOR != null) {
+        page.waitForSelector(READY_SELECTOR);
+      }
+      if (response == null || response.status() >= 400) {
+        metrics.recordError(PAGE_LOAD);
+        return;
+      }
+      metrics.recordSuccess(PAGE_LOAD, System.nanoTime() - start);
+    } catch (RuntimeException e) {
+      metrics.recordError(PAGE_LOAD);
+    }
+  }
+
+  // Timing is reported by the browser in milliseconds relative to the request start, or as -1
+  // when it has none (for example a response served from cache); those samples are skipped.
+  private static void recordApiCall(Request request, OperationMetrics metrics) {
+    if (!isApiCall(request)) {
+      return;
+    }
+    Response response = request.response();
+    if (response == null || response.status() >= 400) {
+      metrics.recordError(operationName(request));
+      return;
+    }
+    double responseEnd = request.timing().responseEnd;
+    if (responseEnd < 0) {
+      return;
+    }
+    metrics.recordSuccess(operationName(request), (long) (responseEnd * 1_000_000));
+  }
+
+  private static boolean isApiCall(Request request) {
+    return request.resourceType().equals("fetch") || request.resourceType().equals("xhr");
+  }
+
+  private static String operationName(Request request) {
+    String path = URI.create(request.url()).getPath().replaceAll("/\\d+(?=/|$)", "/{id}");
+    return request.method() + " " + path;
+  }
+}
@@ -0,0 +1,188 @@
+package com.ognjen.template.systemtest.perftests;
+
+import com.ognjen.template.systemtest.harness.BudgetOkClient;
+import com.ognjen.template.systemtest.harness.DatabaseFixture;
+import com.ognjen.template.systemtest.harness.Fixtures;
+import com.ognjen.template.systemtest.harness.LoadRunner;
+import com.ognjen.template.systemtest.harness.OperationMetrics;
+import com.ognjen.template.systemtest.harness.PerfReport;
+import com.ognjen.template.systemtest.harness.Scenario;
+import com.ognjen.template.systemtest.harness.Scenarios;
+import com.ognjen.template.systemtest.harness.SessionPool;
+import com.ognjen.template.systemtest.harness.VisibilityProbe;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Measures the window between a write being acknowledged and it being visible at
+ * {@code GET /api/envelopes/{id}}, while a background envelope mix keeps the backend busy.
+ */
+@Tag("perf")
+@DatabaseFixture(Fixtures.LARGE)
+class WriteVisibilityPerfTest {
+
+  private static final int PROBES = Integer.getInteger("perf.visibility.probes", 100);
+  private static final int BACKGROUND_USERS = Integer.getInteger("perf.virtualUsers", 8);
+  private static final long MAX_STALENESS_MICROS =
+      Long.getLong("perf.visibility.maxStalenessMillis", 1_000) * 1_000;
+
+  private static BudgetOkClient writer;
+  private static BudgetOkClient reader;
+  private static final VisibilityProbe probe = new VisibilityProbe(
+      Duration.ofMillis(Long.getLong("perf.visibility.pollMillis", 5)),
+      Duration.ofSeconds(Long.getLong("perf.visibility.timeoutSeconds", 10)));
+  private static final PerfReport report = new PerfReport("Write-to-read visibility under load",
+      "write", "probes", "stale_reads", "timeouts", "p50_us", "p99_us", "max_us",
+      "background_ok", "background_errors");
+
+  private static final ExecutorService background = Executors.newSingleThreadExecutor();
+  private static final LoadRunner backgroundRunner =
+      new LoadRunner(new OperationMetrics(), "visibility-background");
+  private static Future<?> backgroundLoad;
+  private static long backgroundSuccessesAtStart;
+  private static long backgroundErrorsAtStart;
+
+  private static long sourceEnvelopeId;
+  private static long targetEnvelopeId;
+  private static final String bankOkEnvelopeName = "visibility";
+  private static long bankOkEnvelopeId;
+
+  @BeforeAll
+  static void startBackgroundLoad() throws Exception {
+    writer = SessionPool.asUser(new BudgetOkClient());
+    reader = SessionPool.asUser(new BudgetOkClient());
+    sourceEnvelopeId = writer.createEnvelopeId("Visibility Source", 1_000_000);
+    targetEnvelopeId = writer.createEnvelopeId("Visibility Target", 0);
+    bankOkEnvelopeId = writer.createEnvelopeId(bankOkEnvelopeName, 1_000_000);
+
+    Scenario scenario = Scenarios.named(Scenarios.ENVELOPE_MIX);
+    BudgetOkClient api = new BudgetOkClient();
+    scenario.prepare(api);
+    backgroundLoad = background.submit(() -> {
+      backgroundRunner.runFor(BACKGROUND_USERS, Duration.ofHours(1),
+          iteration -> scenario.iteration(api, backgroundRunner, iteration));
+      return null;
+    });
+  }
+
+  @AfterAll
+  static void stopBackgroundLoad() {
+    backgroundLoad.cancel(true);
+    background.shutdownNow();
+    report.print();
+    report.writeCsv("write-visibility.csv");
+  }
+
+  @Test
+  void givenBackgroundLoad_whenAddingExpense_thenExpenseBecomesVisibleWithinBound()
+      throws Exception {
+    startProbes("add-expense");
+    for (int i = 0; i < PROBES; i++) {
+      String memo = "Visible expense " + i;
+      probe.probe("add-expense", i,
+          attempt -> writer.addExpense(sourceEnvelopeId, 1, memo, "WITHDRAW"),
+          attempt -> bodyOf(reader.getEnvelope(sourceEnvelopeId)).contains("\"" + memo + "\""));
+    }
+
+    assertWithinBound("add-expense");
+  }
+
+  @Test
+  void givenBackgroundLoad_whenTransferring_thenTargetSeesDepositWithinBound() throws Exception {
+    startProbes("transfer");
+    for (int i = 0; i < PROBES; i++) {
+      String memo = "Visible transfer " + i;
+      probe.probe("transfer", i,
+          attempt -> writer.transfer(sourceEnvelopeId, targetEnvelopeId, 1, memo),
+          attempt -> bodyOf(reader.getEnvelope(targetEnvelopeId)).contains("\"" + memo + "\""));
+    }
+
+    assertWithinBound("transfer");
+  }
+
+  @Test
+  void givenBackgroundLoad_whenSyncingBankOk_thenSyncedExpenseIsVisibleWithinBound()
+      throws Exception {
+    startProbes("sync-bank-ok");
+    for (int i = 0; i < PROBES; i++) {
+      HttpResponse<String> bankOkExpense = writer.createBankOkExpense("Visible sync " + i, 1,
+          bankOkEnvelopeName, "WITHDRAW");
+      assertEquals(201, bankOkExpense.statusCode(), "Should create expense in Bank OK");
+      long bankExpenseId = BudgetOkClient.extractId(bankOkExpense.body());
+      // The closing delimiter keeps id 12 from matching an expense synced as 123.
+      Pattern syncedExpense = Pattern.compile("\"bankExpenseId\":\\s*" + bankExpenseId
+          + "\\s*[,}]");
+
+      probe.probe("sync-bank-ok", i,
+          attempt -> writer.syncBankOk(),
+          attempt -> syncedExpense.matcher(bodyOf(reader.getEnvelope(bankOkEnvelopeId))).find());
+    }
+
+    assertWithinBound("sync-bank-ok");
+  }
+
+  private static void startProbes(String write) throws InterruptedException {
+    assertBackgroundLoadRunning();
+    backgroundRunner.markPhase(write + " probes");
+    backgroundSuccessesAtStart = backgroundSuccesses();
+    backgroundErrorsAtStart = backgroundErrors();
+  }
+
+  private static void assertWithinBound(String write) throws InterruptedException {
+    assertBackgroundLoadRunning();
+    Histogram window = probe.window(write);
+    long backgroundOk = backgroundSuccesses() - backgroundSuccessesAtStart;
+    long backgroundFailed = backgroundErrors() - backgroundErrorsAtStart;
+    report.row(write, window.getTotalCount(), probe.staleReads(write), probe.timeouts(write),
+        window.getValueAtPercentile(50), window.getValueAtPercentile(99), window.getMaxValue(),
+        backgroundOk, backgroundFailed);
+
+    assertTrue(backgroundOk > 0, "Background load should have kept running during " + write);
+
+    assertEquals(0, probe.timeouts(write), write + " should always become visible");
+    assertTrue(window.getValueAtPercentile(99) <= MAX_STALENESS_MICROS,
+        write + " p99 staleness window (" + window.getValueAtPercentile(99)
+            + " us) should stay within " + MAX_STALENESS_MICROS + " us");
+  }
+
+  // The probes only mean something while the backend is busy; a background run that died would
+  // quietly turn this into an idle measurement.
+  private static void assertBackgroundLoadRunning() throws InterruptedException {
+    if (backgroundLoad.isDone()) {
+      try {
+        backgroundLoad.get();
+        fail("Background load stopped early");
+      } catch (ExecutionException e) {
+        fail("Background load failed", e.getCause());
+      }
+    }
+  }
+
+  private static long backgroundSuccesses() {
+    OperationMetrics metrics = backgroundRunner.metrics();
+    return metrics.operations().stream().mapToLong(metrics::successCount).sum();
+  }
+
+  private static long backgroundErrors() {
+    OperationMetrics metrics = backgroundRunner.metrics();
+    return metrics.operations().stream().mapToLong(metrics::errorCount).sum();
+  }
+
+  private static String bodyOf(HttpResponse<String> response) {
+    return response.statusCode() == 200 ? response.body() : "";
+  }
+}
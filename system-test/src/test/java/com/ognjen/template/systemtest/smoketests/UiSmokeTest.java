@@ -1,6 +1,7 @@
 package com.ognjen.template.systemtest.smoketests;
 
 import com.microsoft.playwright.*;
+import com.ognjen.template.systemtest.harness.BrowserPool;
 import org.junit.jupiter.api.*;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -8,13 +9,12 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class UiSmokeTest {
 
-    private static final String BASE_URL = "http://localhost:5173";
+    private static final String BASE_URL = BrowserPool.FRONTEND_URL;
 
     @Test
-    void givenHomePage_whenRequested_thenShouldReturnValidHtmlContent() {
-        try (Playwright playwright = Playwright.create()) {
-            Browser browser = playwright.chromium().launch();
-            Page page = browser.newPage();
+    void givenHomePage_whenRequested_thenShouldReturnValidHtmlContent() throws Exception {
+        try (BrowserPool.Lease browser = BrowserPool.shared().acquire()) {
+            Page page = browser.page();
 
             // Navigate and get response
             Response response = page.navigate(BASE_URL);
@@ -31,8 +31,6 @@ public class UiSmokeTest {
             String pageContent = page.content();
             assertTrue(pageContent.contains("<html"), "Response should contain HTML opening tag");
             assertTrue(pageContent.contains("</html>"), "Response should contain HTML closing tag");
-
-            browser.close();
         }
     }
 }